@@ -0,0 +1,45 @@
+#!/bin/sh
+# build.sh
+# 只依赖 JDK 的构建脚本，生成三个 jar（Java 8 字节码）：
+#   build/sdes-core.jar   算法库，不依赖 AWT/Swing
+#   build/sdes-tools.jar  命令行工具与基准测试（依赖 core）
+#   build/sdes-gui.jar    图形界面与 Main 入口（依赖 core、tools）
+# 若当前 JDK 带有 jdk.incubator.vector 模块，另外生成（以当前 JDK 的字节码版本编译）：
+#   build/sdes-vector.jar Vector API 引擎（依赖 core），运行时需加 --add-modules jdk.incubator.vector
+set -e
+cd "$(dirname "$0")"
+# JDK 9+ 用 --release 8 按 Java 8 的类库链接（只用 -source/-target 时 ByteBuffer.flip() 等会链接到
+# 新版本的协变返回类型，在 Java 8 上抛 NoSuchMethodError）；JDK 8 本身没有该选项
+if javac --release 8 -version >/dev/null 2>&1; then
+    JAVAC="javac -encoding UTF-8 --release 8"
+else
+    JAVAC="javac -encoding UTF-8 -source 8 -target 8"
+fi
+SEP=":"
+case "$(uname -s)" in CYGWIN*|MINGW*|MSYS*) SEP=";" ;; esac
+
+rm -rf build
+mkdir -p build/classes/core build/classes/tools build/classes/gui
+
+$JAVAC -d build/classes/core src/*.java
+jar cf build/sdes-core.jar -C build/classes/core .
+
+if java --list-modules 2>/dev/null | grep -q '^jdk.incubator.vector'; then
+    mkdir -p build/classes/vector
+    javac -encoding UTF-8 --add-modules jdk.incubator.vector -cp build/sdes-core.jar \
+        -d build/classes/vector vector/src/*.java
+    jar cf build/sdes-vector.jar -C build/classes/vector .
+else
+    echo "当前 JDK 没有 jdk.incubator.vector 模块，跳过 sdes-vector.jar（vector 引擎将回退到 table）"
+fi
+
+$JAVAC -cp build/sdes-core.jar -d build/classes/tools tools/src/*.java
+# sdes-vector.jar 不存在时 Class-Path 中的该项会被忽略
+printf 'Class-Path: sdes-core.jar sdes-vector.jar\n' > build/tools.mf
+jar cfme build/sdes-tools.jar build/tools.mf SDESCli -C build/classes/tools .
+
+$JAVAC -cp "build/sdes-core.jar${SEP}build/sdes-tools.jar" -d build/classes/gui gui/src/*.java
+printf 'Class-Path: sdes-core.jar sdes-tools.jar sdes-vector.jar\n' > build/gui.mf
+jar cfme build/sdes-gui.jar build/gui.mf Main -C build/classes/gui .
+
+echo "构建完成：build/sdes-core.jar build/sdes-tools.jar build/sdes-gui.jar$([ -f build/sdes-vector.jar ] && echo " build/sdes-vector.jar")"
@@ -1,11 +1,15 @@
 /**
  * Main.java
- * 程序入口
+ * 程序入口：无参数时启动图形界面，带参数时作为命令行工具运行（见 SDESCli）
  */
 import javax.swing.SwingUtilities;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            SDESCli.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             SDES_GUI gui = new SDES_GUI();
             gui.setVisible(true);
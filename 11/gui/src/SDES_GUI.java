@@ -0,0 +1,599 @@
+/**
+ * SDES_GUI.java
+ * Swing 中文界面：支持加密/解密/ASCII 模式/暴力破解/封闭测试
+ *
+ * ASCII 模式下文本按 UTF-8 编码为字节，密文按所选编码（二进制串 / 十六进制 / Base64）显示；
+ * 二进制串只在界面边缘使用，内部一律以 byte[] 处理。
+ *
+ * 耗时操作（ASCII 加解密、暴力破解、封闭测试）在后台线程上执行，不阻塞界面；
+ * 运行期间显示进度，可随时取消。日志先写入缓冲区，由定时器批量刷新到文本框。
+ * “运行指标”按钮把 SDESMetrics 的计数输出到日志；同样的指标也注册为 JMX MBean（sdes:type=Metrics）。
+ *
+ * “唯密文攻击”只需密文：用全部密钥解密密文开头的样本并按所选打分器排序，列出最可能的密钥。
+ *
+ * 依赖算法库 sdes-core（11/src）
+ *
+ * 编译与运行（Java 8）：
+ *   cd 11 && ./build.sh
+ *   java -jar build/sdes-gui.jar
+ */
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SDES_GUI extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    // 界面控件（中文）
+    private JTextField tfPlain;    // 明文或 ASCII 输入（取决于模式）
+    private JTextField tfKey;      // 10-bit 密钥输入
+    private JTextField tfCipher;   // 密文框（在 ASCII 模式下为连续 8-bit 块）
+    private JCheckBox cbAsciiMode; // ASCII 模式勾选框
+    private JComboBox<String> cbCodec; // ASCII 模式下密文的显示编码
+    private JComboBox<String> cbScorer; // 唯密文攻击的明文打分器
+    private JButton btnEncrypt, btnDecrypt, btnAsciiEncrypt, btnAsciiDecrypt;
+    private JButton btnBruteForce, btnCipherOnly, btnClosedTest, btnMetrics, btnCancel;
+    private JProgressBar progressBar;
+    private JTextArea taLog;
+    private JTextField tfThreads;  // 暴力破解线程数输入
+    private ClosedTestAnalysis closedAnalysis; // 全空间封闭测试结果（首次使用时计算）
+
+    // 暴力破解用的线程池（守护线程，整个窗口生命周期内复用）；每次运行前按"线程数"调整大小
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "sdes-worker");
+                t.setDaemon(true);
+                return t;
+            });
+    private BackgroundJob currentJob;  // 当前后台任务（只在 EDT 上读写）
+    // 日志缓冲：任意线程都可写入，由界面定时器批量追加到 taLog
+    private final StringBuilder pendingLog = new StringBuilder();
+    private static final int UI_REFRESH_MS = 100;
+
+    public SDES_GUI() {
+        setTitle("S-DES 加密系统");
+        setSize(820, 620);               // 加大窗口防止按钮截断
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+
+        initComponents();
+        try {
+            SDESJmx.register();
+        } catch (IllegalStateException ex) {
+            log(ex.getMessage());
+        }
+    }
+
+    private void initComponents() {
+        // 顶部输入区
+        JPanel pTop = new JPanel(new GridBagLayout());
+        pTop.setBorder(BorderFactory.createTitledBorder("输入 / 设置"));
+        GridBagConstraints g = new GridBagConstraints();
+        g.insets = new Insets(6,6,6,6);
+        g.fill = GridBagConstraints.HORIZONTAL;
+
+        g.gridx = 0; g.gridy = 0; pTop.add(new JLabel("明文（8-bit 二进制或 ASCII 文本）:"), g);
+        g.gridx = 1; g.gridy = 0; tfPlain = new JTextField(36); pTop.add(tfPlain, g);
+
+        g.gridx = 0; g.gridy = 1; pTop.add(new JLabel("密钥（10-bit 二进制）:"), g);
+        g.gridx = 1; g.gridy = 1; tfKey = new JTextField(20); pTop.add(tfKey, g);
+
+        g.gridx = 0; g.gridy = 2; pTop.add(new JLabel("密文（8-bit 块串，ASCII 模式按所选编码）:"), g);
+        g.gridx = 1; g.gridy = 2; tfCipher = new JTextField(36); pTop.add(tfCipher, g);
+
+        g.gridx = 0; g.gridy = 3; pTop.add(new JLabel("线程数（暴力破解用，可选）:"), g);
+        g.gridx = 1; g.gridy = 3; tfThreads = new JTextField(String.valueOf(Runtime.getRuntime().availableProcessors()), 6); pTop.add(tfThreads, g);
+
+        g.gridx = 0; g.gridy = 4; cbAsciiMode = new JCheckBox("ASCII 模式（文本按 UTF-8 逐字节为 8-bit 分组）"); pTop.add(cbAsciiMode, g);
+        g.gridx = 1; g.gridy = 4; cbCodec = new JComboBox<>(new String[] { "密文编码：二进制串", "密文编码：十六进制", "密文编码：Base64" }); pTop.add(cbCodec, g);
+        g.gridx = 0; g.gridy = 5; pTop.add(new JLabel("唯密文攻击打分方式:"), g);
+        g.gridx = 1; g.gridy = 5; cbScorer = new JComboBox<>(new String[] { "可打印字符比例", "英文字母频率（卡方）", "UTF-8 文本" }); pTop.add(cbScorer, g);
+        getContentPane().add(pTop, BorderLayout.NORTH);
+
+        // 中间功能按钮区（使用 FlowLayout + 多行按钮避免挤压）
+        JPanel pButtons = new JPanel(new FlowLayout(FlowLayout.LEFT, 12, 12));
+        pButtons.setBorder(BorderFactory.createTitledBorder("操作"));
+
+        btnEncrypt = new JButton("加密（单 8-bit 分组）");
+        btnDecrypt = new JButton("解密（单 8-bit 分组）");
+        btnAsciiEncrypt = new JButton("加密（ASCII 模式）");
+        btnAsciiDecrypt = new JButton("解密（ASCII 模式）");
+        btnBruteForce = new JButton("暴力破解（找密钥）");
+        btnCipherOnly = new JButton("唯密文攻击");
+        btnClosedTest = new JButton("封闭测试（检验多密钥碰撞）");
+        btnMetrics = new JButton("运行指标");
+
+        // 把按钮放入 panel
+        pButtons.add(btnEncrypt); pButtons.add(btnDecrypt);
+        pButtons.add(btnAsciiEncrypt); pButtons.add(btnAsciiDecrypt);
+        pButtons.add(btnBruteForce); pButtons.add(btnCipherOnly);
+        pButtons.add(btnClosedTest); pButtons.add(btnMetrics);
+
+        // 后台任务进度与取消
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        progressBar.setString("空闲");
+        progressBar.setPreferredSize(new Dimension(360, 24));
+        btnCancel = new JButton("取消");
+        btnCancel.setEnabled(false);
+        pButtons.add(progressBar); pButtons.add(btnCancel);
+
+        getContentPane().add(pButtons, BorderLayout.CENTER);
+
+        // 下方日志输出
+        taLog = new JTextArea();
+        taLog.setEditable(false);
+        taLog.setLineWrap(true);
+        JScrollPane sp = new JScrollPane(taLog);
+        sp.setBorder(BorderFactory.createTitledBorder("输出 / 日志"));
+        sp.setPreferredSize(new Dimension(780, 280));
+        getContentPane().add(sp, BorderLayout.SOUTH);
+
+        // 绑定事件
+        bindEvents();
+
+        // 定时刷新日志与进度（在 EDT 上执行）
+        new javax.swing.Timer(UI_REFRESH_MS, e -> {
+            flushLog();
+            refreshProgress();
+        }).start();
+    }
+
+    private void bindEvents() {
+        // 单分组加密
+        btnEncrypt.addActionListener(e -> {
+            try {
+                if (cbAsciiMode.isSelected()) {
+                    log("提示：当前勾选了 ASCII 模式，但你点击的是单分组加密（将视为单 8-bit 二进制处理）。");
+                }
+                String plain = tfPlain.getText().trim();
+                String key = tfKey.getText().trim();
+                if (!validate8Bit(plain) || !validate10Bit(key)) return;
+                String cipher = SDES.encryptBlock(plain, key);
+                tfCipher.setText(cipher);
+                log("加密（单组）: P=" + plain + "  K=" + key + "  -> C=" + cipher);
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // 单分组解密
+        btnDecrypt.addActionListener(e -> {
+            try {
+                String cipher = tfCipher.getText().trim();
+                String key = tfKey.getText().trim();
+                if (!validate8Bit(cipher) || !validate10Bit(key)) return;
+                String plain = SDES.decryptBlock(cipher, key);
+                tfPlain.setText(plain);
+                log("解密（单组）: C=" + cipher + "  K=" + key + "  -> P=" + plain);
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // ASCII 加密（文本 -> UTF-8 字节 -> 逐字节加密 -> 按所选编码显示）
+        btnAsciiEncrypt.addActionListener(e -> {
+            try {
+                String text = tfPlain.getText();
+                String key = tfKey.getText().trim();
+                if (!validate10Bit(key)) return;
+                SDESKey k = SDESKey.of(key); // 密钥只展开一次
+                SDESCodec codec = selectedCodec();
+                byte[] data = SDESCodecs.utf8(text);
+                startJob("ASCII 加密", data.length, "字节", job -> {
+                    if (!cryptInChunks(job, k, true, data)) return null;
+                    String cipher = SDESCodecs.encode(codec, data);
+                    return () -> {
+                        tfCipher.setText(cipher);
+                        log("ASCII 加密完成，原文长度 " + text.length() + "，UTF-8 字节数 " + data.length
+                                + "，密文（" + codec.name() + "）长度 " + cipher.length());
+                    };
+                });
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // ASCII 解密（按所选编码解析密文 -> 逐字节解密 -> UTF-8 文本）
+        btnAsciiDecrypt.addActionListener(e -> {
+            try {
+                String cipherText = tfCipher.getText().trim();
+                String key = tfKey.getText().trim();
+                if (!validate10Bit(key)) return;
+                SDESKey k = SDESKey.of(key);
+                byte[] data = selectedCodec().decode(cipherText);
+                startJob("ASCII 解密", data.length, "字节", job -> {
+                    if (!cryptInChunks(job, k, false, data)) return null;
+                    String plain = SDESCodecs.utf8(data);
+                    return () -> {
+                        tfPlain.setText(plain);
+                        log("ASCII 解密完成，恢复文本：" + plain);
+                    };
+                });
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // 暴力破解（多线程）
+        btnBruteForce.addActionListener(e -> {
+            try {
+                boolean ascii = cbAsciiMode.isSelected();
+                String plainInput = tfPlain.getText().trim();
+                String cipherInput = tfCipher.getText().trim();
+                int threads = parseThreadCount(tfThreads.getText().trim());
+                if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+                threads = Math.min(threads, SDESKey.KEY_COUNT);
+
+                // 解析输入
+                byte[] plainBytes;
+                byte[] cipherBytes;
+                if (ascii) {
+                    // ASCII 模式：plainInput 是原文字符串（UTF-8），cipherInput 按所选编码解析
+                    plainBytes = SDESCodecs.utf8(plainInput);
+                    cipherBytes = selectedCodec().decode(cipherInput);
+                    if (plainBytes.length != cipherBytes.length) {
+                        log("错误：明文 UTF-8 字节数与密文字节数不匹配。");
+                        return;
+                    }
+                } else {
+                    // 非 ASCII：plain 和 cipher 都应为逗号分隔的 8-bit 块或单个 8-bit
+                    plainBytes = parseBlockList(plainInput, "明文");
+                    cipherBytes = parseBlockList(cipherInput, "密文");
+                    if (plainBytes == null || cipherBytes == null) return;
+                }
+
+                // 基本检测
+                if (plainBytes.length == 0 || plainBytes.length != cipherBytes.length) {
+                    log("错误：请提供等数量的明文与密文分组（ASCII 模式下明文为字符串，密文为所选编码）。");
+                    return;
+                }
+
+                final byte[] plain = plainBytes;
+                final byte[] cipher = cipherBytes;
+
+                // 后台多线程搜索：线程池调整为给定线程数，密钥空间按线程数切分，每个线程一段
+                final int parts = threads;
+                log("开始暴力破解（多线程）... 线程数=" + parts);
+                startJob("暴力破解", SDESKey.KEY_COUNT, "密钥", job -> {
+                    resizeWorkers(parts);
+                    long t0 = System.currentTimeMillis();
+                    long m0 = SDESMetrics.start();
+                    List<Future<List<String>>> futures = new ArrayList<>();
+                    final int totalKeys = SDESKey.KEY_COUNT;
+                    final int per = (totalKeys + parts - 1) / parts;
+                    try {
+                        for (int i = 0; i < parts; ++i) {
+                            final int start = i * per;
+                            final int end = Math.min(totalKeys, start + per);
+                            if (start >= end) break;
+                            futures.add(workers.submit(() -> {
+                                // 本段密钥下的全部明文密文逐行比较，取消后停止
+                                List<String> found = new ArrayList<>();
+                                SDESBatch.forEach(plain, 0, plain.length, SDESBatch.keyRange(start, end), true,
+                                        (idx, k, row, off, len) -> {
+                                            int j = 0;
+                                            while (j < len && row[off + j] == cipher[j]) j++;
+                                            if (j == len) found.add(SDESKey.of(k).toBits());
+                                            job.advance(1);
+                                            return !job.stopped();
+                                        }, null);
+                                return found;
+                            }));
+                        }
+                        // 收集结果
+                        List<String> candidates = new ArrayList<>();
+                        for (Future<List<String>> f : futures) {
+                            candidates.addAll(f.get());
+                        }
+                        long elapsed = System.currentTimeMillis() - t0;
+                        SDESMetrics.search(totalKeys, m0);
+                        return () -> {
+                            if (candidates.isEmpty()) {
+                                log("未找到匹配密钥（耗时 " + elapsed + " ms）。");
+                            } else {
+                                log("找到 " + candidates.size() + " 个候选密钥（耗时 " + elapsed + " ms）：");
+                                for (String k : candidates) log("  " + k);
+                            }
+                        };
+                    } finally {
+                        for (Future<?> f : futures) f.cancel(true);
+                    }
+                });
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // 唯密文攻击（只用密文，按明文打分排序候选密钥）
+        btnCipherOnly.addActionListener(e -> {
+            try {
+                String cipherInput = tfCipher.getText().trim();
+                boolean ascii = cbAsciiMode.isSelected();
+                byte[] cipher = ascii ? selectedCodec().decode(cipherInput) : parseBlockList(cipherInput, "密文");
+                if (cipher == null) return;
+                if (cipher.length == 0) { log("错误：请在密文框输入密文。"); return; }
+                PlaintextScorer scorer = PlaintextScorers.all()[Math.max(0, cbScorer.getSelectedIndex())];
+                startJob("唯密文攻击", SDESKey.KEY_COUNT, "密钥", job -> {
+                    long t0 = System.currentTimeMillis();
+                    CiphertextOnlySearch.Candidate[] top = CiphertextOnlySearch.search(cipher, scorer, 5);
+                    job.advance(SDESKey.KEY_COUNT);
+                    long elapsed = System.currentTimeMillis() - t0;
+                    return () -> {
+                        log("唯密文攻击完成（打分器 " + scorer.name() + "，样本 "
+                                + Math.min(cipher.length, CiphertextOnlySearch.DEFAULT_PREFIX) + " 字节，耗时 " + elapsed + " ms），前 " + top.length + " 个候选：");
+                        for (CiphertextOnlySearch.Candidate c : top) {
+                            byte[] preview = new byte[Math.min(cipher.length, ascii ? 32 : 4)];
+                            SDES.decrypt(cipher, 0, preview.length, preview, 0, c.key10());
+                            String shown = ascii ? SDESCodecs.utf8(preview) : SDESCodecs.BITS.encode(preview, 0, preview.length);
+                            log(String.format("  %s  得分 %.4f  明文开头：%s", SDESKey.of(c.key10()), c.score(), shown));
+                        }
+                    };
+                });
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // 运行指标（分组数、吞吐量、密钥扩展与建表耗时、搜索速率、各线程工作量）
+        btnMetrics.addActionListener(e -> {
+            if (!SDESMetrics.ENABLED) {
+                log("指标记录已关闭（-D" + SDESMetrics.METRICS_PROPERTY + "=false）。");
+                return;
+            }
+            log("运行指标：\n" + SDESMetrics.get().toJson().trim());
+        });
+
+        // 封闭测试（扫描所有密钥，找出哪些密钥对某个明文产生相同密文）
+        btnClosedTest.addActionListener(e -> {
+            try {
+                String plainInput = tfPlain.getText().trim();
+                boolean ascii = cbAsciiMode.isSelected();
+                String targetPlain8 = null;
+
+                if (ascii) {
+                    byte[] bytes = SDESCodecs.utf8(plainInput);
+                    if (bytes.length != 1) {
+                        log("提示：ASCII 模式下，封闭测试只支持单字节字符输入（用于测试该字符在 1024 个密钥下的密文分布）。");
+                        return;
+                    }
+                    targetPlain8 = SDES.byteTo8Bits(bytes[0]);
+                } else {
+                    if (!validate8BitSilent(plainInput)) { log("错误：请输入 8-bit 明文做封闭测试（或选择 ASCII 模式并输入单字符）。"); return; }
+                    targetPlain8 = plainInput;
+                }
+
+                log("开始封闭测试：扫描所有 1024 个密钥，对明文 " + targetPlain8 + " 计算密文分布...");
+                int plainInt = Integer.parseInt(targetPlain8, 2);
+                // 全空间分析只需做一次，之后每个明文直接查结果
+                ClosedTestAnalysis cached = closedAnalysis;
+                if (cached != null) {
+                    showClosedTest(cached, plainInt);
+                    return;
+                }
+                startJob("封闭测试", 1, "次", job -> {
+                    ClosedTestAnalysis a = ClosedTestAnalysis.run();
+                    job.advance(1);
+                    return () -> {
+                        closedAnalysis = a;
+                        log(String.format("已完成全部 256 个明文的封闭测试分析（耗时 %.3f ms），等价密钥类 %d 个（其中多密钥类 %d 个）。",
+                                a.elapsedNanos() / 1e6, a.classCount(), a.equivalenceClasses().length));
+                        showClosedTest(a, plainInt);
+                    };
+                });
+            } catch (Exception ex) {
+                log("错误: " + ex.getMessage());
+            }
+        });
+
+        // 取消当前后台任务
+        btnCancel.addActionListener(e -> {
+            if (currentJob != null) currentJob.cancel(true);
+        });
+    }
+
+    // 输出某个明文的封闭测试结果
+    private void showClosedTest(ClosedTestAnalysis a, int plainInt) {
+        int collisions = a.collidingCiphers(plainInt);
+        log("扫描结束。不同密文数 = " + a.distinctCiphers(plainInt)
+                + "，出现多个不同密钥映射到同一密文的密文数量 = " + collisions);
+        if (collisions > 0) {
+            log("下面列举部分碰撞（密文 -> 对应密钥列表）：");
+            // 只对分析结果中涉及碰撞的密钥（升序）重新加密分组，不必在 EDT 上建立 KeyRecovery 的倒排索引
+            List<List<String>> byCipher = new ArrayList<>(Collections.nCopies(256, (List<String>) null));
+            for (int k : a.collidingKeys(plainInt)) {
+                int cipher = SDESKey.of(k).encrypt(plainInt);
+                if (byCipher.get(cipher) == null) byCipher.set(cipher, new ArrayList<>());
+                byCipher.get(cipher).add(SDESKey.of(k).toBits());
+            }
+            int shown = 0;
+            for (int cipher = 0; cipher < 256 && shown < 10; ++cipher) {
+                if (byCipher.get(cipher) != null) {
+                    log("  " + SDES.byteTo8Bits(cipher) + "  ->  " + byCipher.get(cipher));
+                    shown++;
+                }
+            }
+        } else {
+            log("未发现碰撞：该明文在所有 1024 个密钥下生成的密文均唯一。");
+        }
+    }
+
+    // ---------- 后台任务 ----------
+
+    // 每处理这么多个单位检查一次取消并汇报进度
+    private static final int PROGRESS_STEP = 4096;
+
+    // 任务体：在后台线程上运行；返回值（可为 null）在任务成功后于 EDT 上执行，用于更新界面
+    private interface Job {
+        Runnable run(BackgroundJob job) throws Exception;
+    }
+
+    // 基于 SwingWorker 的后台任务；进度记在原子计数器里，由界面定时器统一刷新
+    private final class BackgroundJob extends SwingWorker<Runnable, Void> {
+        private final String title;
+        private final long total;
+        private final String unit;
+        private final Job body;
+        private final AtomicLong completed = new AtomicLong();
+
+        BackgroundJob(String title, long total, String unit, Job body) {
+            this.title = title;
+            this.total = Math.max(1, total);
+            this.unit = unit;
+            this.body = body;
+        }
+
+        // 任意线程均可调用
+        void advance(long n) {
+            completed.addAndGet(n);
+        }
+
+        // 任务是否已被取消（任意线程均可调用）
+        boolean stopped() {
+            return isCancelled();
+        }
+
+        @Override
+        protected Runnable doInBackground() throws Exception {
+            return body.run(this);
+        }
+
+        @Override
+        protected void done() {
+            currentJob = null;
+            setBusy(false);
+            try {
+                Runnable onSuccess = get();
+                if (onSuccess != null) onSuccess.run();
+            } catch (CancellationException ex) {
+                log(title + "已取消。");
+            } catch (ExecutionException ex) {
+                log("错误: " + ex.getCause().getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            progressBar.setValue(0);
+            progressBar.setString("空闲");
+        }
+    }
+
+    // 启动后台任务；同一时间只运行一个
+    private void startJob(String title, long total, String unit, Job body) {
+        if (currentJob != null) {
+            log("提示：" + currentJob.title + "正在运行，请等待完成或先取消。");
+            return;
+        }
+        currentJob = new BackgroundJob(title, total, unit, body);
+        setBusy(true);
+        refreshProgress();
+        currentJob.execute();
+    }
+
+    private void setBusy(boolean busy) {
+        for (JButton b : new JButton[] { btnAsciiEncrypt, btnAsciiDecrypt, btnBruteForce, btnCipherOnly,
+                btnClosedTest }) {
+            b.setEnabled(!busy);
+        }
+        btnCancel.setEnabled(busy);
+    }
+
+    private void refreshProgress() {
+        BackgroundJob job = currentJob;
+        if (job == null) return;
+        long done = Math.min(job.completed.get(), job.total);
+        progressBar.setValue((int) (done * 1000 / job.total));
+        progressBar.setString(job.title + "：" + done + " / " + job.total + " " + job.unit);
+    }
+
+    // ---------- 辅助方法 ----------
+
+    private SDESCodec selectedCodec() {
+        return SDESCodecs.all()[Math.max(0, cbCodec.getSelectedIndex())];
+    }
+
+    // 按 PROGRESS_STEP 分块用默认引擎原地加/解密，每块之间检查取消；被取消时返回 false
+    private static boolean cryptInChunks(BackgroundJob job, SDESKey k, boolean encrypt, byte[] data) {
+        for (int i = 0; i < data.length; i += PROGRESS_STEP) {
+            if (job.stopped()) return false;
+            int n = Math.min(PROGRESS_STEP, data.length - i);
+            if (encrypt) SDES.encrypt(data, i, n, data, i, k.key10());
+            else SDES.decrypt(data, i, n, data, i, k.key10());
+            job.advance(n);
+        }
+        return true;
+    }
+
+    // 逗号分隔的 8-bit 块（或单个 8-bit）；格式错误时记录日志并返回 null
+    private byte[] parseBlockList(String input, String what) {
+        if (input.isEmpty()) return new byte[0];
+        String[] parts = input.split(",");
+        byte[] out = new byte[parts.length];
+        for (int i = 0; i < parts.length; ++i) {
+            String s = parts[i].trim();
+            if (!validate8BitSilent(s)) { log("错误：" + what + "块格式错误：" + s); return null; }
+            out[i] = (byte) Integer.parseInt(s, 2);
+        }
+        return out;
+    }
+
+    // 任意线程均可调用；实际追加到 taLog 由定时器批量完成
+    private void log(String s) {
+        synchronized (pendingLog) {
+            pendingLog.append(s).append('\n');
+        }
+    }
+
+    private void flushLog() {
+        String chunk;
+        synchronized (pendingLog) {
+            if (pendingLog.length() == 0) return;
+            chunk = pendingLog.toString();
+            pendingLog.setLength(0);
+        }
+        taLog.append(chunk);
+        taLog.setCaretPosition(taLog.getDocument().getLength());
+    }
+
+    // 简单校验 8-bit 格式
+    private boolean validate8Bit(String s) {
+        if (s == null || s.length() != 8 || !s.matches("[01]{8}")) {
+            log("错误：请输入 8 位二进制（例如 01010101）。");
+            return false;
+        }
+        return true;
+    }
+    // 校验但不打印错误（用于内部判断）
+    private boolean validate8BitSilent(String s) {
+        return s != null && s.length() == 8 && s.matches("[01]{8}");
+    }
+    private boolean validate10Bit(String s) {
+        if (s == null || s.length() != 10 || !s.matches("[01]{10}")) {
+            log("错误：请输入 10 位二进制密钥（例如 1010000010）。");
+            return false;
+        }
+        return true;
+    }
+    // 同一时间只有一个后台任务，调整大小不会影响其他任务；先放大上限再放大核心数，缩小时相反
+    private void resizeWorkers(int n) {
+        if (n > workers.getMaximumPoolSize()) {
+            workers.setMaximumPoolSize(n);
+            workers.setCorePoolSize(n);
+        } else {
+            workers.setCorePoolSize(n);
+            workers.setMaximumPoolSize(n);
+        }
+    }
+
+    private int parseThreadCount(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (Exception e) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+}
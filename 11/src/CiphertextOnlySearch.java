@@ -0,0 +1,159 @@
+/**
+ * CiphertextOnlySearch.java
+ * 唯密文攻击：用全部 1024 个密钥解密密文样本，对候选明文打分，返回得分最高的前 N 个密钥
+ *
+ * 只取密文开头 prefix 字节作为样本（默认 4 KB），因此数 MB 的密文也只需常数时间。
+ * 字节频率类打分器（PlaintextScorer.ByteFrequency）不逐字节解密：
+ * 先统计一次密文的字节频率，每个密钥只需按解密表把 256 个计数换位，即得到候选明文的频率。
+ * 其他打分器按密钥分段并行，每段用 SDESBatch 逐行解密样本（复用一个行缓冲区）后打分。
+ */
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public final class CiphertextOnlySearch {
+    /** 默认样本长度 */
+    public static final int DEFAULT_PREFIX = 4096;
+
+    private static final int KEYS = SDESKey.KEY_COUNT;
+    private static final int KEYS_PER_TASK = 64;
+
+    private CiphertextOnlySearch() {
+    }
+
+    /** 一个候选密钥及其得分 */
+    public static final class Candidate implements Comparable<Candidate> {
+        private final int key10;
+        private final double score;
+
+        Candidate(int key10, double score) {
+            this.key10 = key10;
+            this.score = score;
+        }
+
+        public int key10() { return key10; }
+        public double score() { return score; }
+
+        // 得分高的在前，同分按密钥升序
+        @Override
+        public int compareTo(Candidate o) {
+            int c = Double.compare(o.score, score);
+            return c != 0 ? c : Integer.compare(key10, o.key10);
+        }
+
+        @Override
+        public String toString() {
+            return SDESKey.of(key10).toBits() + String.format(" (%.4f)", score);
+        }
+    }
+
+    /**
+     * 在公共 ForkJoinPool 上搜索
+     * @see #search(byte[], int, int, PlaintextScorer, int, int, ForkJoinPool)
+     */
+    public static Candidate[] search(byte[] cipher, PlaintextScorer scorer, int topN) {
+        return search(cipher, 0, cipher.length, scorer, topN, DEFAULT_PREFIX, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 对 cipher[off..off+len) 的前 prefix 字节做唯密文搜索
+     * @param topN 返回的候选个数（不超过 1024）
+     * @return 按得分从高到低排列的候选
+     */
+    public static Candidate[] search(byte[] cipher, int off, int len, PlaintextScorer scorer, int topN, int prefix,
+                                     ForkJoinPool pool) {
+        if (scorer == null) throw new IllegalArgumentException("打分器不能为空");
+        if (topN <= 0 || prefix <= 0) throw new IllegalArgumentException("候选个数和样本长度必须为正数");
+        if (off < 0 || len < 0 || off + len > cipher.length) throw new IndexOutOfBoundsException("数组范围越界");
+        if (len == 0) throw new IllegalArgumentException("密文不能为空");
+        long t0 = SDESMetrics.start();
+        int n = Math.min(len, prefix);
+        long[] cipherCounts = null;
+        if (scorer instanceof PlaintextScorer.ByteFrequency) {
+            cipherCounts = new long[256];
+            for (int i = 0; i < n; ++i) cipherCounts[cipher[off + i] & 0xFF]++;
+        }
+        Candidate[] top = pool.invoke(new KeyRange(cipher, off, n, cipherCounts, scorer,
+                Math.min(topN, KEYS), 0, KEYS));
+        SDESMetrics.search(KEYS, t0);
+        return top;
+    }
+
+    /**
+     * 从流中读取至多 prefix 字节作为样本后搜索（不读取其余部分，不关闭流）
+     */
+    public static Candidate[] search(InputStream in, PlaintextScorer scorer, int topN, int prefix) throws IOException {
+        if (prefix <= 0) throw new IllegalArgumentException("样本长度必须为正数");
+        byte[] sample = new byte[prefix];
+        int n = 0, r;
+        while (n < prefix && (r = in.read(sample, n, prefix - n)) > 0) n += r;
+        return search(sample, 0, n, scorer, topN, prefix, ForkJoinPool.commonPool());
+    }
+
+    // 合并两个已排序的候选数组，保留前 topN 个
+    private static Candidate[] merge(Candidate[] a, Candidate[] b, int topN) {
+        Candidate[] out = new Candidate[Math.min(topN, a.length + b.length)];
+        int i = 0, j = 0;
+        for (int k = 0; k < out.length; ++k) {
+            out[k] = j >= b.length || (i < a.length && a[i].compareTo(b[j]) <= 0) ? a[i++] : b[j++];
+        }
+        return out;
+    }
+
+    // 按密钥分段：每段求段内前 topN
+    private static final class KeyRange extends RecursiveTask<Candidate[]> {
+        private static final long serialVersionUID = 1L;
+        private final byte[] cipher;
+        private final int off;
+        private final int n;
+        private final long[] cipherCounts; // 非 null 时走频率表换位
+        private final PlaintextScorer scorer;
+        private final int topN;
+        private final int lo;
+        private final int hi;
+
+        KeyRange(byte[] cipher, int off, int n, long[] cipherCounts, PlaintextScorer scorer, int topN,
+                 int lo, int hi) {
+            this.cipher = cipher;
+            this.off = off;
+            this.n = n;
+            this.cipherCounts = cipherCounts;
+            this.scorer = scorer;
+            this.topN = topN;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Candidate[] compute() {
+            if (hi - lo > KEYS_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                KeyRange left = new KeyRange(cipher, off, n, cipherCounts, scorer, topN, lo, mid);
+                left.fork();
+                Candidate[] right = new KeyRange(cipher, off, n, cipherCounts, scorer, topN, mid, hi).compute();
+                return merge(left.join(), right, topN);
+            }
+            Candidate[] found = new Candidate[hi - lo];
+            if (cipherCounts != null) {
+                byte[] dec = SDESTableEngine.decryptTable();
+                PlaintextScorer.ByteFrequency f = (PlaintextScorer.ByteFrequency) scorer;
+                long[] counts = new long[256];
+                for (int k = lo; k < hi; ++k) {
+                    int base = k << 8;
+                    for (int c = 0; c < 256; ++c) counts[dec[base | c] & 0xFF] = cipherCounts[c];
+                    found[k - lo] = new Candidate(k, f.score(counts, n));
+                }
+                SDESMetrics.scanWork(hi - lo);
+            } else {
+                SDESBatch.forEach(cipher, off, n, SDESBatch.keyRange(lo, hi), false, (i, k, plain, pOff, pLen) -> {
+                    found[i] = new Candidate(k, scorer.score(plain, pOff, pLen));
+                    return true;
+                }, null);
+            }
+            Arrays.sort(found);
+            return found.length > topN ? Arrays.copyOf(found, topN) : found;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * ClosedTestAnalysis.java
+ * 完整的封闭测试与密钥等价性分析：扫描全部 1024 密钥 × 256 明文
+ *
+ * 对每个明文统计 1024 个密钥下的密文分布（不同密文数、发生碰撞的密文数、涉及碰撞的密钥数等），
+ * 并找出在全部 256 个分组上加密结果完全相同的等价密钥类。
+ * 扫描在 ForkJoinPool 上并行进行，结果全部存放在基本类型数组中，可导出为 CSV 或 JSON。
+ * 结果对象不可变，可在多线程间共享。
+ */
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class ClosedTestAnalysis {
+    private static final int BLOCKS = 256;
+    private static final int KEYS = SDESKey.KEY_COUNT;
+    private static final int WORDS = KEYS >>> 6;
+    // 并行切分的最小粒度
+    private static final int PLAINTEXTS_PER_TASK = 16;
+    private static final int KEYS_PER_TASK = 64;
+    // 0..255 全部分组
+    private static final byte[] ALL_BLOCKS = new byte[BLOCKS];
+
+    static {
+        for (int p = 0; p < BLOCKS; ++p) ALL_BLOCKS[p] = (byte) p;
+    }
+
+    private final int[] distinctCiphers = new int[BLOCKS];
+    private final int[] collidingCiphers = new int[BLOCKS];
+    private final int[] collidingKeyCount = new int[BLOCKS];
+    private final int[] maxKeysPerCipher = new int[BLOCKS];
+    // 每个明文下涉及碰撞的密钥位图，第 p 个明文占 WORDS 个 long
+    private final long[] collidingKeys = new long[BLOCKS * WORDS];
+    // multiplicity[m]：在所有 (明文, 密文) 组合中恰好有 m 个密钥的组合数
+    private final long[] multiplicity = new long[KEYS + 1];
+    // keyClass[k]：密钥 k 所在等价类的代表（类中最小的密钥）
+    private final int[] keyClass = new int[KEYS];
+    private int classCount;
+    private long elapsedNanos;
+
+    private ClosedTestAnalysis() {
+    }
+
+    /** 在公共 ForkJoinPool 上运行完整分析 */
+    public static ClosedTestAnalysis run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /** 在指定线程池上运行完整分析 */
+    public static ClosedTestAnalysis run(ForkJoinPool pool) {
+        long t0 = System.nanoTime();
+        ClosedTestAnalysis a = new ClosedTestAnalysis();
+        // 全部 256 个明文在全部密钥下的密文矩阵：enc[(k << 8) | p]
+        byte[] enc = SDESBatch.run(ALL_BLOCKS, 0, BLOCKS, SDESBatch.keyRange(0, KEYS), true, pool);
+        long[][] partial = new long[BLOCKS][];
+        pool.invoke(new PlaintextSweep(a, enc, partial, 0, BLOCKS));
+        for (long[] h : partial) {
+            for (int m = 1; m <= KEYS; ++m) a.multiplicity[m] += h[m];
+        }
+        long[] hashes = new long[KEYS];
+        pool.invoke(new RowHash(enc, hashes, 0, KEYS));
+        a.classify(enc, hashes);
+        a.elapsedNanos = System.nanoTime() - t0;
+        SDESMetrics.search(KEYS, t0);
+        return a;
+    }
+
+    // ---------- 查询 ----------
+
+    /** 明文 p 在 1024 个密钥下产生的不同密文个数 */
+    public int distinctCiphers(int p) {
+        return distinctCiphers[p & 0xFF];
+    }
+
+    /** 明文 p 下由两个及以上密钥产生的密文个数 */
+    public int collidingCiphers(int p) {
+        return collidingCiphers[p & 0xFF];
+    }
+
+    /** 明文 p 下与其他密钥产生相同密文的密钥个数 */
+    public int collidingKeyCount(int p) {
+        return collidingKeyCount[p & 0xFF];
+    }
+
+    /** 明文 p 下同一密文对应的最多密钥个数 */
+    public int maxKeysPerCipher(int p) {
+        return maxKeysPerCipher[p & 0xFF];
+    }
+
+    /** 明文 p 下涉及碰撞的密钥（升序） */
+    public int[] collidingKeys(int p) {
+        int base = (p & 0xFF) * WORDS;
+        return KeyRecovery.keys(Arrays.copyOfRange(collidingKeys, base, base + WORDS));
+    }
+
+    /** 在所有 (明文, 密文) 组合中恰好对应 m 个密钥的组合数，m 为 1..1024 */
+    public long multiplicity(int m) {
+        return multiplicity[m];
+    }
+
+    /** 密钥 k 所在等价类的代表（类中最小的密钥） */
+    public int keyClass(int k) {
+        return keyClass[k];
+    }
+
+    /** 等价类总数（包括只有一个密钥的类） */
+    public int classCount() {
+        return classCount;
+    }
+
+    /** 含两个及以上密钥的等价类，每类按升序排列，各类按代表升序排列 */
+    public int[][] equivalenceClasses() {
+        int[] size = new int[KEYS];
+        for (int k = 0; k < KEYS; ++k) size[keyClass[k]]++;
+        int n = 0;
+        for (int k = 0; k < KEYS; ++k) if (size[k] > 1) n++;
+        int[][] out = new int[n][];
+        int[] slot = new int[KEYS];
+        for (int k = 0, i = 0; k < KEYS; ++k) {
+            if (size[k] > 1) {
+                slot[k] = i;
+                out[i++] = new int[size[k]];
+            }
+        }
+        int[] fill = new int[n];
+        for (int k = 0; k < KEYS; ++k) {
+            int r = keyClass[k];
+            if (size[r] > 1) out[slot[r]][fill[slot[r]]++] = k;
+        }
+        return out;
+    }
+
+    /** 分析耗时（纳秒） */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // ---------- 导出 ----------
+
+    /** 每个明文一行的碰撞统计 CSV */
+    public void writeCollisionCsv(Appendable out) throws IOException {
+        out.append("plaintext,distinct_ciphers,colliding_ciphers,colliding_keys,max_keys_per_cipher\n");
+        for (int p = 0; p < BLOCKS; ++p) {
+            out.append(SDES.byteTo8Bits(p)).append(',')
+                    .append(String.valueOf(distinctCiphers[p])).append(',')
+                    .append(String.valueOf(collidingCiphers[p])).append(',')
+                    .append(String.valueOf(collidingKeyCount[p])).append(',')
+                    .append(String.valueOf(maxKeysPerCipher[p])).append('\n');
+        }
+    }
+
+    /** 密钥数直方图 CSV：每个 (明文, 密文) 组合对应的密钥数 -> 组合个数 */
+    public void writeHistogramCsv(Appendable out) throws IOException {
+        out.append("keys_per_cipher,count\n");
+        for (int m = 1; m <= KEYS; ++m) {
+            if (multiplicity[m] != 0) {
+                out.append(String.valueOf(m)).append(',').append(String.valueOf(multiplicity[m])).append('\n');
+            }
+        }
+    }
+
+    /** 等价类 CSV：类代表、大小、以空格分隔的密钥列表 */
+    public void writeClassesCsv(Appendable out) throws IOException {
+        out.append("representative,size,keys\n");
+        for (int[] cls : equivalenceClasses()) {
+            out.append(SDESKey.of(cls[0]).toBits()).append(',').append(String.valueOf(cls.length)).append(',');
+            for (int i = 0; i < cls.length; ++i) {
+                if (i > 0) out.append(' ');
+                out.append(SDESKey.of(cls[i]).toBits());
+            }
+            out.append('\n');
+        }
+    }
+
+    /** 完整报告 JSON */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\n  \"elapsed_ms\": ").append(String.format("%.3f", elapsedNanos / 1e6));
+        out.append(",\n  \"plaintexts\": [");
+        for (int p = 0; p < BLOCKS; ++p) {
+            out.append(p == 0 ? "\n" : ",\n");
+            out.append("    {\"plaintext\": \"").append(SDES.byteTo8Bits(p))
+                    .append("\", \"distinct_ciphers\": ").append(String.valueOf(distinctCiphers[p]))
+                    .append(", \"colliding_ciphers\": ").append(String.valueOf(collidingCiphers[p]))
+                    .append(", \"colliding_keys\": ").append(String.valueOf(collidingKeyCount[p]))
+                    .append(", \"max_keys_per_cipher\": ").append(String.valueOf(maxKeysPerCipher[p])).append('}');
+        }
+        out.append("\n  ],\n  \"keys_per_cipher_histogram\": {");
+        boolean first = true;
+        for (int m = 1; m <= KEYS; ++m) {
+            if (multiplicity[m] == 0) continue;
+            out.append(first ? "" : ", ").append('"').append(String.valueOf(m)).append("\": ")
+                    .append(String.valueOf(multiplicity[m]));
+            first = false;
+        }
+        out.append("},\n  \"class_count\": ").append(String.valueOf(classCount));
+        out.append(",\n  \"equivalence_classes\": [");
+        int[][] classes = equivalenceClasses();
+        for (int i = 0; i < classes.length; ++i) {
+            out.append(i == 0 ? "\n    [" : ",\n    [");
+            for (int j = 0; j < classes[i].length; ++j) {
+                if (j > 0) out.append(", ");
+                out.append('"').append(SDESKey.of(classes[i][j]).toBits()).append('"');
+            }
+            out.append(']');
+        }
+        out.append(classes.length == 0 ? "]\n}\n" : "\n  ]\n}\n");
+    }
+
+    // ---------- 内部实现 ----------
+
+    // 按 (行哈希高位 | 密钥) 排序后，哈希相同的密钥再逐字节比较整行，得到等价类；
+    // 同一组内密钥升序，因此先遇到的就是类中最小的密钥
+    private void classify(byte[] enc, long[] hashes) {
+        long[] order = new long[KEYS];
+        for (int k = 0; k < KEYS; ++k) order[k] = (hashes[k] & ~0x3FFL) | k;
+        Arrays.sort(order);
+        Arrays.fill(keyClass, -1);
+        int start = 0;
+        while (start < KEYS) {
+            int end = start + 1;
+            while (end < KEYS && (order[end] & ~0x3FFL) == (order[start] & ~0x3FFL)) end++;
+            for (int i = start; i < end; ++i) {
+                int k = (int) (order[i] & 0x3FF);
+                if (keyClass[k] >= 0) continue;
+                keyClass[k] = k;
+                classCount++;
+                for (int j = i + 1; j < end; ++j) {
+                    int other = (int) (order[j] & 0x3FF);
+                    if (keyClass[other] < 0 && sameRow(enc, k, other)) keyClass[other] = k;
+                }
+            }
+            start = end;
+        }
+    }
+
+    private static boolean sameRow(byte[] enc, int a, int b) {
+        int ia = a << 8;
+        int ib = b << 8;
+        for (int p = 0; p < BLOCKS; ++p) {
+            if (enc[ia + p] != enc[ib + p]) return false;
+        }
+        return true;
+    }
+
+    // 按明文切分：每个明文统计 1024 个密钥下的密文分布
+    private static final class PlaintextSweep extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ClosedTestAnalysis a;
+        private final byte[] enc;
+        private final long[][] partial;
+        private final int lo;
+        private final int hi;
+
+        PlaintextSweep(ClosedTestAnalysis a, byte[] enc, long[][] partial, int lo, int hi) {
+            this.a = a;
+            this.enc = enc;
+            this.partial = partial;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > PLAINTEXTS_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new PlaintextSweep(a, enc, partial, lo, mid), new PlaintextSweep(a, enc, partial, mid, hi));
+                return;
+            }
+            int[] counts = new int[BLOCKS];
+            for (int p = lo; p < hi; ++p) {
+                Arrays.fill(counts, 0);
+                for (int k = 0; k < KEYS; ++k) counts[enc[(k << 8) | p] & 0xFF]++;
+                long[] hist = new long[KEYS + 1];
+                int distinct = 0, colliding = 0, collidingKeys = 0, max = 0;
+                for (int c = 0; c < BLOCKS; ++c) {
+                    int n = counts[c];
+                    if (n == 0) continue;
+                    distinct++;
+                    hist[n]++;
+                    if (n > 1) {
+                        colliding++;
+                        collidingKeys += n;
+                    }
+                    if (n > max) max = n;
+                }
+                int base = p * WORDS;
+                for (int k = 0; k < KEYS; ++k) {
+                    if (counts[enc[(k << 8) | p] & 0xFF] > 1) a.collidingKeys[base + (k >>> 6)] |= 1L << (k & 63);
+                }
+                a.distinctCiphers[p] = distinct;
+                a.collidingCiphers[p] = colliding;
+                a.collidingKeyCount[p] = collidingKeys;
+                a.maxKeysPerCipher[p] = max;
+                partial[p] = hist;
+            }
+        }
+    }
+
+    // 按密钥切分：计算每个密钥整行密文（256 字节）的 64 位哈希
+    private static final class RowHash extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] enc;
+        private final long[] hashes;
+        private final int lo;
+        private final int hi;
+
+        RowHash(byte[] enc, long[] hashes, int lo, int hi) {
+            this.enc = enc;
+            this.hashes = hashes;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > KEYS_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RowHash(enc, hashes, lo, mid), new RowHash(enc, hashes, mid, hi));
+                return;
+            }
+            for (int k = lo; k < hi; ++k) {
+                long h = 0xcbf29ce484222325L; // FNV-1a
+                int base = k << 8;
+                for (int p = 0; p < BLOCKS; ++p) {
+                    h ^= enc[base + p] & 0xFF;
+                    h *= 0x100000001b3L;
+                }
+                hashes[k] = h;
+            }
+            SDESMetrics.scanWork(hi - lo);
+        }
+    }
+}
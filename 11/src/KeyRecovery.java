@@ -0,0 +1,109 @@
+/**
+ * KeyRecovery.java
+ * 已知明文攻击的倒排索引引擎
+ *
+ * 预先为每个 (明文字节, 密文字节) 建立一个 1024 位的候选密钥位图（16 个 long），
+ * 共 256 × 256 个位图，约 8 MB，在第一次使用时构建。
+ * 之后给定 N 对已知明文/密文，只需做 N 次位图求交，不再扫描整个密钥空间。
+ * 索引只读，多线程并发查询是安全的。
+ */
+public final class KeyRecovery {
+    /** 一个候选密钥位图占用的 long 个数（1024 / 64） */
+    public static final int BITSET_WORDS = SDESKey.KEY_COUNT >>> 6;
+
+    private KeyRecovery() {
+    }
+
+    // 惰性持有者：第一次访问时才构建索引
+    private static final class Index {
+        // INDEX[((p << 8) | c) * BITSET_WORDS + w] 的第 b 位表示密钥 w * 64 + b 把 p 加密为 c
+        static final long[] INDEX = new long[(256 * 256) * BITSET_WORDS];
+        static final long BUILD_NANOS;
+
+        static {
+            long t0 = System.nanoTime();
+            byte[] enc = SDESTableEngine.encryptTable();
+            for (int k = 0; k < SDESKey.KEY_COUNT; ++k) {
+                int base = k << 8;
+                int word = k >>> 6;
+                long bit = 1L << (k & 63);
+                for (int p = 0; p < 256; ++p) {
+                    int c = enc[base | p] & 0xFF;
+                    INDEX[((p << 8) | c) * BITSET_WORDS + word] |= bit;
+                }
+            }
+            BUILD_NANOS = System.nanoTime() - t0;
+        }
+    }
+
+    /** 构建索引的耗时（纳秒），会触发构建 */
+    public static long buildNanos() {
+        return Index.BUILD_NANOS;
+    }
+
+    /** 索引占用的字节数（不含数组对象头） */
+    public static long footprintBytes() {
+        return 256L * 256 * BITSET_WORDS * 8;
+    }
+
+    /**
+     * 对 n 对已知明文/密文求候选密钥位图，结果写入 dst（长度至少 BITSET_WORDS），不分配对象
+     * @return 候选密钥个数
+     */
+    public static int intersect(byte[] plain, int plainOff, byte[] cipher, int cipherOff, int n, long[] dst) {
+        if (n <= 0) throw new IllegalArgumentException("至少需要一对明文/密文");
+        if (plainOff < 0 || cipherOff < 0 || plainOff + n > plain.length || cipherOff + n > cipher.length)
+            throw new IndexOutOfBoundsException("数组范围越界");
+        if (dst.length < BITSET_WORDS) throw new IllegalArgumentException("结果数组长度不足");
+        long[] index = Index.INDEX;
+        int first = pairBase(plain[plainOff], cipher[cipherOff]);
+        System.arraycopy(index, first, dst, 0, BITSET_WORDS);
+        for (int i = 1; i < n; ++i) {
+            int base = pairBase(plain[plainOff + i], cipher[cipherOff + i]);
+            long any = 0;
+            for (int w = 0; w < BITSET_WORDS; ++w) {
+                any |= (dst[w] &= index[base + w]);
+            }
+            if (any == 0) return 0; // 已无候选，提前结束
+        }
+        return cardinality(dst);
+    }
+
+    /**
+     * 由已知明文/密文（等长）恢复全部候选密钥
+     * @return 升序排列的候选密钥（0..1023），可能为空
+     */
+    public static int[] recover(byte[] plain, byte[] cipher) {
+        if (plain.length != cipher.length) throw new IllegalArgumentException("明文与密文长度必须一致");
+        long t0 = SDESMetrics.start();
+        long[] bits = new long[BITSET_WORDS];
+        intersect(plain, 0, cipher, 0, plain.length, bits);
+        SDESMetrics.scanWork(SDESKey.KEY_COUNT);
+        SDESMetrics.search(SDESKey.KEY_COUNT, t0);
+        return keys(bits);
+    }
+
+    /** 把候选位图展开为升序密钥数组 */
+    public static int[] keys(long[] bits) {
+        int[] out = new int[cardinality(bits)];
+        int n = 0;
+        for (int w = 0; w < BITSET_WORDS; ++w) {
+            long word = bits[w];
+            while (word != 0) {
+                out[n++] = (w << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    private static int cardinality(long[] bits) {
+        int n = 0;
+        for (int w = 0; w < BITSET_WORDS; ++w) n += Long.bitCount(bits[w]);
+        return n;
+    }
+
+    private static int pairBase(byte p, byte c) {
+        return (((p & 0xFF) << 8) | (c & 0xFF)) * BITSET_WORDS;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * KeySpaceSearch.java
+ * 已知明文下对单重 / 双重 / 三重 S-DES 密钥空间的穷举搜索，可按下标区间分段执行
+ *
+ * 密钥组合按下标编号，下标的每 10 位是一个密钥，从高到低依次为 k1、k2（、k3）：
+ *   single   C = E(k, P)                        下标 k，共 2^10 个
+ *   double   C = E(k2, E(k1, P))                下标 k1 << 10 | k2，共 2^20 个
+ *   triple2  C = E(k1, D(k2, E(k1, P)))         下标 k1 << 10 | k2，共 2^20 个
+ *   triple   C = E(k3, D(k2, E(k1, P)))         下标 k1 << 20 | k2 << 10 | k3，共 2^30 个
+ * 下标高位（除最后 10 位外）称为前缀：同一前缀的 1024 个组合共享前面各层的中间结果，
+ * 最后一层用 SDESBatch 逐行计算后与密文比较。
+ *
+ * 与 MeetInTheMiddle 不同，这里不需要任何全局表，任意下标区间 [from, to) 可以独立搜索，
+ * 因此可以切成小段分给多个线程或进程（见 sdes-tools 中的 SDESCoordinator / SDESWorker）。
+ */
+import java.util.Arrays;
+
+public final class KeySpaceSearch {
+    private static final int KEYS = SDESKey.KEY_COUNT;
+
+    /** 加密方式 */
+    public enum Variant {
+        SINGLE(1), DOUBLE(2), TRIPLE2(2), TRIPLE(3);
+
+        private final int keyCount;
+
+        Variant(int keyCount) {
+            this.keyCount = keyCount;
+        }
+
+        /** 下标中的密钥个数 */
+        public int keyCount() {
+            return keyCount;
+        }
+
+        /** 密钥组合总数 */
+        public int size() {
+            return 1 << (10 * keyCount);
+        }
+
+        /** 命令行与检查点中使用的名称 */
+        public String label() {
+            return name().toLowerCase();
+        }
+
+        public static Variant byName(String name) {
+            for (Variant v : values()) {
+                if (v.label().equals(name)) return v;
+            }
+            throw new IllegalArgumentException("加密方式只能为 single、double、triple 或 triple2：" + name);
+        }
+    }
+
+    private final Variant variant;
+    private final byte[] plain;
+    private final byte[] cipher;
+
+    /**
+     * @param plain  已知明文分组
+     * @param cipher 对应的密文分组（与明文等长）
+     */
+    public KeySpaceSearch(Variant variant, byte[] plain, byte[] cipher) {
+        if (variant == null) throw new IllegalArgumentException("加密方式不能为空");
+        if (plain.length == 0 || plain.length != cipher.length)
+            throw new IllegalArgumentException("明文与密文必须等长且至少一对");
+        this.variant = variant;
+        this.plain = plain.clone();
+        this.cipher = cipher.clone();
+    }
+
+    public Variant variant() { return variant; }
+    public byte[] plain() { return plain.clone(); }
+    public byte[] cipher() { return cipher.clone(); }
+
+    /** 下标对应的各个密钥（k1、k2、k3 依次排列） */
+    public int[] keys(int index) {
+        int n = variant.keyCount();
+        int[] keys = new int[n];
+        for (int i = 0; i < n; ++i) keys[i] = (index >>> (10 * (n - 1 - i))) & 0x3FF;
+        return keys;
+    }
+
+    /** 下标对应的密钥组合的可读形式（空格分隔的 10 位二进制） */
+    public String format(int index) {
+        StringBuilder sb = new StringBuilder();
+        for (int k : keys(index)) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(SDESKey.of(k).toBits());
+        }
+        return sb.toString();
+    }
+
+    /** 用全部明文/密文对逐一验证一个密钥组合 */
+    public boolean verify(int index) {
+        checkRange(index, index + 1);
+        int[] k = keys(index);
+        for (int i = 0; i < plain.length; ++i) {
+            int p = plain[i] & 0xFF;
+            int c;
+            switch (variant) {
+                case SINGLE:
+                    c = SDESKey.of(k[0]).encrypt(p);
+                    break;
+                case DOUBLE:
+                    c = SDESKey.of(k[1]).encrypt(SDESKey.of(k[0]).encrypt(p));
+                    break;
+                case TRIPLE2:
+                    c = SDESKey.of(k[0]).encrypt(SDESKey.of(k[1]).decrypt(SDESKey.of(k[0]).encrypt(p)));
+                    break;
+                default:
+                    c = SDESKey.of(k[2]).encrypt(SDESKey.of(k[1]).decrypt(SDESKey.of(k[0]).encrypt(p)));
+                    break;
+            }
+            if (c != (cipher[i] & 0xFF)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在当前线程上搜索下标区间 [from, to)
+     * @param maxResults 最多返回的匹配个数，达到后立即停止；Integer.MAX_VALUE 表示返回区间内的全部匹配
+     * @return 升序排列的匹配下标
+     */
+    public int[] search(int from, int to, int maxResults) {
+        checkRange(from, to);
+        if (maxResults <= 0) throw new IllegalArgumentException("maxResults 必须为正数");
+        long t0 = SDESMetrics.start();
+        int n = plain.length;
+        byte[] mid = new byte[n];
+        int[][] found = { new int[Math.min(maxResults, 16)] };
+        int[] count = new int[1];
+        int[] allKeys = SDESBatch.keyRange(0, KEYS);
+        for (int prefix = from >>> 10; prefix <= (to - 1) >>> 10 && count[0] < maxResults; ++prefix) {
+            int base = prefix << 10;
+            int lo = Math.max(from, base) - base;
+            int hi = Math.min(to, base + KEYS) - base;
+            final SDESKey outer = variant == Variant.TRIPLE2 ? SDESKey.of(prefix) : null;
+            boolean encrypt = prefixState(prefix, mid);
+            int[] keys = hi - lo == KEYS ? allKeys : SDESBatch.keyRange(lo, hi);
+            SDESBatch.forEach(mid, 0, n, keys, encrypt, (i, k, row, off, len) -> {
+                for (int j = 0; j < len; ++j) {
+                    int c = outer != null ? outer.encrypt(row[off + j] & 0xFF) : row[off + j] & 0xFF;
+                    if (c != (cipher[j] & 0xFF)) return true;
+                }
+                if (count[0] == found[0].length) found[0] = Arrays.copyOf(found[0], count[0] << 1);
+                found[0][count[0]++] = base | k;
+                return count[0] < maxResults;
+            }, null);
+        }
+        SDESMetrics.search(to - from, t0);
+        return Arrays.copyOf(found[0], count[0]);
+    }
+
+    // 计算前缀对应的中间结果写入 mid；返回最后一层（对 1024 个密钥逐行计算的一层）是加密还是解密
+    private boolean prefixState(int prefix, byte[] mid) {
+        int n = plain.length;
+        switch (variant) {
+            case SINGLE:
+                System.arraycopy(plain, 0, mid, 0, n);
+                return true;
+            case DOUBLE:
+                SDESKey.of(prefix).encrypt(plain, 0, n, mid, 0);
+                return true;
+            case TRIPLE2:
+                // 最后一层为 D(k2, ·)，之后再用 k1 加密一次（在回调中完成）
+                SDESKey.of(prefix).encrypt(plain, 0, n, mid, 0);
+                return false;
+            default:
+                SDESKey.of(prefix >>> 10).encrypt(plain, 0, n, mid, 0);
+                SDESKey.of(prefix & 0x3FF).decrypt(mid, 0, n, mid, 0);
+                return true;
+        }
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > variant.size() || from >= to)
+            throw new IllegalArgumentException("下标范围必须在 0.." + variant.size() + " 内且非空：" + from + ".." + to);
+    }
+}
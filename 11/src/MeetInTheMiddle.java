@@ -0,0 +1,298 @@
+/**
+ * MeetInTheMiddle.java
+ * 双重 / 三重 S-DES 的中间相遇攻击（已知明文）
+ *
+ * 双重加密 C = E(k2, E(k1, P))：
+ *   先对全部 k1 计算中间值 E(k1, P)，按中间值排序成一张 long 数组表（中间值 << 10 | k1），
+ *   再对每个 k2 计算 D(k2, C) 并在表中二分查找，总计约 2 × 2^10 次分组运算，而不是 2^20。
+ * 三重加密（三密钥 EDE）C = E(k3, D(k2, E(k1, P)))：
+ *   同一张 k1 表，用 E(k2, D(k3, C)) 去查，约 2^10 + 2^20 次，而不是 2^30。
+ * 三重加密（两密钥 EDE）C = E(k1, D(k2, E(k1, P)))：
+ *   k1 出现在两侧，无法直接拆开；对每个 k1 把 (D(k1, C), E(k1, P)) 当作 k2 的已知明文对，
+ *   交给 KeyRecovery 的倒排索引求交，约 2^10 次查询。
+ *
+ * 中间值取前最多 3 对明文/密文拼成的指纹，命中后再用全部明文对逐一验证。
+ * 探测阶段在 ForkJoinPool 上并行，结果用 int 打包的密钥组合表示（见 key1/key2/key3）。
+ * 候选超过 maxResults 个时，返回的总是打包值最小的 maxResults 个，与任务调度无关：
+ * 各子任务只保留自己最小的 maxResults 个，合并时再取两边最小的 maxResults 个。
+ */
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class MeetInTheMiddle {
+    private static final int KEYS = SDESKey.KEY_COUNT;
+    // 指纹使用的明文对个数上限（3 × 8 = 24 位，加上 10 位密钥仍可放入 long）
+    private static final int FINGERPRINT_PAIRS = 3;
+    // 每个叶子任务探测的后半密钥个数
+    private static final int PROBES_PER_TASK = 256;
+
+    private MeetInTheMiddle() {
+    }
+
+    /** 打包结果中的第一个密钥 */
+    public static int key1(int packed) {
+        return (packed >>> 20) & 0x3FF;
+    }
+
+    /** 打包结果中的第二个密钥 */
+    public static int key2(int packed) {
+        return (packed >>> 10) & 0x3FF;
+    }
+
+    /** 打包结果中的第三个密钥 */
+    public static int key3(int packed) {
+        return packed & 0x3FF;
+    }
+
+    /** 打包三个密钥（双重 / 两密钥三重时 key3 为 0） */
+    public static int pack(int key1, int key2, int key3) {
+        return (key1 << 20) | (key2 << 10) | key3;
+    }
+
+    /**
+     * 双重加密攻击
+     * @param maxResults 最多返回的候选个数；候选更多时返回打包值最小的 maxResults 个
+     * @return 候选 (k1, k2)，用 pack(k1, k2, 0) 打包
+     */
+    public static int[] attackDouble(byte[] plain, byte[] cipher, int maxResults) {
+        checkPairs(plain, cipher, maxResults);
+        long t0 = SDESMetrics.start();
+        long[] table = forwardTable(plain);
+        Probe probe = new Probe(plain, cipher, table, maxResults, false, 0, KEYS);
+        int[] found = ForkJoinPool.commonPool().invoke(probe);
+        SDESMetrics.search((long) KEYS * KEYS, t0);
+        return finish(found, maxResults);
+    }
+
+    /**
+     * 三密钥三重加密（EDE）攻击
+     * @return 候选 (k1, k2, k3)，用 pack 打包
+     */
+    public static int[] attackTriple(byte[] plain, byte[] cipher, int maxResults) {
+        checkPairs(plain, cipher, maxResults);
+        long t0 = SDESMetrics.start();
+        long[] table = forwardTable(plain);
+        Probe probe = new Probe(plain, cipher, table, maxResults, true, 0, KEYS * KEYS);
+        int[] found = ForkJoinPool.commonPool().invoke(probe);
+        SDESMetrics.search((long) KEYS * KEYS * KEYS, t0);
+        return finish(found, maxResults);
+    }
+
+    /**
+     * 两密钥三重加密（EDE，k3 = k1）攻击
+     * @return 候选 (k1, k2)，用 pack(k1, k2, 0) 打包
+     */
+    public static int[] attackTriple2(byte[] plain, byte[] cipher, int maxResults) {
+        checkPairs(plain, cipher, maxResults);
+        long t0 = SDESMetrics.start();
+        int[] found = ForkJoinPool.commonPool().invoke(new TwoKeyProbe(plain, cipher, maxResults, 0, KEYS));
+        SDESMetrics.search((long) KEYS * KEYS, t0);
+        return finish(found, maxResults);
+    }
+
+    // ---------- 内部实现 ----------
+
+    private static void checkPairs(byte[] plain, byte[] cipher, int maxResults) {
+        if (plain.length == 0 || plain.length != cipher.length)
+            throw new IllegalArgumentException("明文与密文必须等长且至少一对");
+        if (maxResults <= 0) throw new IllegalArgumentException("maxResults 必须为正数");
+    }
+
+    // 前半表：(指纹 << 10 | k1)，按指纹排序
+    private static long[] forwardTable(byte[] plain) {
+        int m = Math.min(FINGERPRINT_PAIRS, plain.length);
+        long[] table = new long[KEYS];
+        byte[] mid = SDESBatch.run(plain, 0, m, SDESBatch.keyRange(0, KEYS), true, null); // 第 k1 行为 E(k1, P)
+        for (int k1 = 0; k1 < KEYS; ++k1) {
+            long fp = 0;
+            for (int i = 0; i < m; ++i) fp |= (long) (mid[k1 * m + i] & 0xFF) << (i << 3);
+            table[k1] = (fp << 10) | k1;
+        }
+        Arrays.sort(table);
+        return table;
+    }
+
+    // 表中第一个指纹 >= fp 的位置
+    private static int lowerBound(long[] table, long fp) {
+        long target = fp << 10;
+        int lo = 0, hi = table.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (table[mid] < target) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int[] finish(int[] found, int maxResults) {
+        Arrays.sort(found);
+        return found.length > maxResults ? Arrays.copyOf(found, maxResults) : found;
+    }
+
+    // 合并两个已排序的候选数组，保留最小的 maxResults 个
+    private static int[] merge(int[] a, int[] b, int maxResults) {
+        int[] out = new int[Math.min(maxResults, a.length + b.length)];
+        int i = 0, j = 0;
+        for (int k = 0; k < out.length; ++k) {
+            out[k] = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+        }
+        return out;
+    }
+
+    // 简单的 int 动态数组（避免装箱）
+    private static final class IntList {
+        int[] data = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size << 1);
+            data[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        // 排序后只保留最小的 max 个
+        void trim(int max) {
+            Arrays.sort(data, 0, size);
+            size = Math.min(size, max);
+        }
+    }
+
+    // 后半密钥的并行探测：双重时 index 为 k2；三重时 index 为 (k2 << 10) | k3
+    // 打包值以 k1 为最高位，与探测顺序无关，因此必须探测完整个范围才能确定最小的 maxResults 个
+    private static final class Probe extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] plain;
+        private final byte[] cipher;
+        private final long[] table;
+        private final int maxResults;
+        private final boolean triple;
+        private final int lo;
+        private final int hi;
+
+        Probe(byte[] plain, byte[] cipher, long[] table, int maxResults, boolean triple, int lo, int hi) {
+            this.plain = plain;
+            this.cipher = cipher;
+            this.table = table;
+            this.maxResults = maxResults;
+            this.triple = triple;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > PROBES_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                Probe left = new Probe(plain, cipher, table, maxResults, triple, lo, mid);
+                left.fork();
+                int[] right = new Probe(plain, cipher, table, maxResults, triple, mid, hi).compute();
+                return merge(left.join(), right, maxResults);
+            }
+            int m = Math.min(FINGERPRINT_PAIRS, plain.length);
+            IntList out = new IntList();
+            for (int idx = lo; idx < hi; ++idx) {
+                SDESKey k2 = SDESKey.of(triple ? idx >>> 10 : idx);
+                SDESKey k3 = triple ? SDESKey.of(idx & 0x3FF) : null;
+                long fp = 0;
+                for (int i = 0; i < m; ++i) fp |= (long) backward(k2, k3, cipher[i]) << (i << 3);
+                for (int pos = lowerBound(table, fp); pos < table.length && (table[pos] >>> 10) == fp; ++pos) {
+                    int k1 = (int) (table[pos] & 0x3FF);
+                    if (verify(SDESKey.of(k1), k2, k3)) {
+                        out.add(triple ? pack(k1, k2.key10(), k3.key10()) : pack(k1, k2.key10(), 0));
+                    }
+                }
+                if (out.size >= 2L * maxResults) out.trim(maxResults); // 限制叶子任务的内存
+            }
+            SDESMetrics.scanWork((long) (hi - lo) * KEYS); // 每个 idx 经前半表覆盖全部 k1
+            out.trim(maxResults);
+            return out.toArray();
+        }
+
+        // 从密文一侧回到中间值：双重为 D(k2, C)，三重为 E(k2, D(k3, C))
+        private int backward(SDESKey k2, SDESKey k3, byte c) {
+            return k3 == null ? k2.decrypt(c) : k2.encrypt(k3.decrypt(c));
+        }
+
+        private boolean verify(SDESKey k1, SDESKey k2, SDESKey k3) {
+            for (int i = 0; i < plain.length; ++i) {
+                if (k1.encrypt(plain[i]) != backward(k2, k3, cipher[i])) return false;
+            }
+            return true;
+        }
+    }
+
+    // 两密钥 EDE：对每个 k1，(D(k1, C), E(k1, P)) 就是 k2 下的已知明文对
+    // 按 k1 升序探测，候选的打包值也按 k1 升序：某个子任务在 k1 = c 处凑满 maxResults 个后，
+    // 最终结果的 k1 都不超过 c，所有子任务共享的 cutoff 随之降为 c + 1，更大的 k1 不再探测
+    private static final class TwoKeyProbe extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] plain;
+        private final byte[] cipher;
+        private final int maxResults;
+        private final int lo;
+        private final int hi;
+        private final AtomicInteger cutoff;
+
+        TwoKeyProbe(byte[] plain, byte[] cipher, int maxResults, int lo, int hi) {
+            this(plain, cipher, maxResults, lo, hi, new AtomicInteger(hi));
+        }
+
+        private TwoKeyProbe(byte[] plain, byte[] cipher, int maxResults, int lo, int hi, AtomicInteger cutoff) {
+            this.plain = plain;
+            this.cipher = cipher;
+            this.maxResults = maxResults;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > 64) {
+                int mid = (lo + hi) >>> 1;
+                TwoKeyProbe left = new TwoKeyProbe(plain, cipher, maxResults, lo, mid, cutoff);
+                left.fork();
+                int[] right = new TwoKeyProbe(plain, cipher, maxResults, mid, hi, cutoff).compute();
+                return merge(left.join(), right, maxResults);
+            }
+            int n = plain.length;
+            byte[] inner = new byte[n];   // D(k1, C)：k2 的"明文"
+            byte[] outer = new byte[n];   // E(k1, P)：k2 的"密文"
+            long[] bits = new long[KeyRecovery.BITSET_WORDS];
+            IntList out = new IntList();
+            int k1 = lo;
+            for (; k1 < hi && k1 < cutoff.get(); ++k1) {
+                SDESKey key = SDESKey.of(k1);
+                for (int i = 0; i < n; ++i) {
+                    inner[i] = (byte) key.decrypt(cipher[i]);
+                    outer[i] = (byte) key.encrypt(plain[i]);
+                }
+                // C = E(k1, D(k2, E(k1, P)))  <=>  E(k2, D(k1, C)) = E(k1, P)
+                if (KeyRecovery.intersect(inner, 0, outer, 0, n, bits) == 0) continue;
+                for (int k2 : KeyRecovery.keys(bits)) out.add(pack(k1, k2, 0));
+                if (out.size >= maxResults) {
+                    lowerCutoff(k1 + 1);
+                    ++k1;
+                    break;
+                }
+            }
+            SDESMetrics.scanWork((long) (k1 - lo) * KEYS);
+            out.trim(maxResults);
+            return out.toArray();
+        }
+
+        private void lowerCutoff(int c) {
+            int cur;
+            while (c < (cur = cutoff.get()) && !cutoff.compareAndSet(cur, c)) {
+                // 重试
+            }
+        }
+    }
+}
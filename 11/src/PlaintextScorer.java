@@ -0,0 +1,32 @@
+/**
+ * PlaintextScorer.java
+ * 唯密文攻击中对候选明文的打分：分数越大，越像正确的明文
+ *
+ * 只依赖字节频率的打分器实现 ByteFrequency：解密只是字节值的置换，
+ * 候选明文的频率表可由密文频率表直接换算，搜索时不必逐字节解密（见 CiphertextOnlySearch）。
+ */
+public interface PlaintextScorer {
+    /** 打分器名称 */
+    String name();
+
+    /** 对 plain[off..off+len) 打分 */
+    double score(byte[] plain, int off, int len);
+
+    /** 只看字节频率的打分器 */
+    interface ByteFrequency extends PlaintextScorer {
+        /**
+         * 按字节频率打分
+         * @param counts 长度 256，counts[b] 为字节值 b 出现的次数
+         * @param total  counts 之和
+         */
+        double score(long[] counts, long total);
+
+        @Override
+        default double score(byte[] plain, int off, int len) {
+            if (off < 0 || len < 0 || off + len > plain.length) throw new IndexOutOfBoundsException("数组范围越界");
+            long[] counts = new long[256];
+            for (int i = 0; i < len; ++i) counts[plain[off + i] & 0xFF]++;
+            return score(counts, len);
+        }
+    }
+}
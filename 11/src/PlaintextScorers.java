@@ -0,0 +1,130 @@
+/**
+ * PlaintextScorers.java
+ * 内置的明文打分器
+ *
+ *   printable  可打印 ASCII（含制表、换行、回车）所占比例，0..1
+ *   english    与英文文本字节分布的卡方距离（按字节数归一化后取负），越接近 0 越像英文
+ *   utf8       合法 UTF-8 且非控制字符的字节所占比例，0..1，适合中文等非英文文本
+ */
+public final class PlaintextScorers {
+    private PlaintextScorers() {
+    }
+
+    // 英文文本中各类字节的期望比例：26 个字母（不分大小写）、空格、其他可打印字符、换行/制表、其余字节
+    private static final double[] ENGLISH_LETTERS = {
+            8.2, 1.5, 2.8, 4.3, 12.7, 2.2, 2.0, 6.1, 7.0, 0.15, 0.77, 4.0, 2.4,
+            6.7, 7.5, 1.9, 0.095, 6.0, 6.3, 9.1, 2.8, 0.98, 2.4, 0.15, 2.0, 0.074
+    };
+    private static final double LETTER_SHARE = 0.78;
+    private static final double SPACE_SHARE = 0.15;
+    private static final double OTHER_PRINTABLE_SHARE = 0.055;
+    private static final double WHITESPACE_SHARE = 0.0148;
+    private static final double REST_SHARE = 0.0002; // 很小但不为 0，避免除零，同时给出重罚
+    private static final double[] ENGLISH_EXPECTED = new double[30];
+
+    static {
+        double sum = 0;
+        for (double f : ENGLISH_LETTERS) sum += f;
+        for (int i = 0; i < 26; ++i) ENGLISH_EXPECTED[i] = LETTER_SHARE * ENGLISH_LETTERS[i] / sum;
+        ENGLISH_EXPECTED[26] = SPACE_SHARE;
+        ENGLISH_EXPECTED[27] = OTHER_PRINTABLE_SHARE;
+        ENGLISH_EXPECTED[28] = WHITESPACE_SHARE;
+        ENGLISH_EXPECTED[29] = REST_SHARE;
+    }
+
+    public static final PlaintextScorer PRINTABLE = new PlaintextScorer.ByteFrequency() {
+        @Override
+        public String name() {
+            return "printable";
+        }
+
+        @Override
+        public double score(long[] counts, long total) {
+            if (total == 0) return 0;
+            long printable = counts['\t'] + counts['\n'] + counts['\r'];
+            for (int b = 0x20; b < 0x7F; ++b) printable += counts[b];
+            return printable / (double) total;
+        }
+    };
+
+    public static final PlaintextScorer ENGLISH = new PlaintextScorer.ByteFrequency() {
+        @Override
+        public String name() {
+            return "english";
+        }
+
+        @Override
+        public double score(long[] counts, long total) {
+            if (total == 0) return 0;
+            long[] observed = new long[ENGLISH_EXPECTED.length];
+            for (int b = 0; b < 256; ++b) observed[category(b)] += counts[b];
+            double chi2 = 0;
+            for (int i = 0; i < observed.length; ++i) {
+                double expected = total * ENGLISH_EXPECTED[i];
+                double d = observed[i] - expected;
+                chi2 += d * d / expected;
+            }
+            return -chi2 / total;
+        }
+    };
+
+    public static final PlaintextScorer UTF8 = new PlaintextScorer() {
+        @Override
+        public String name() {
+            return "utf8";
+        }
+
+        @Override
+        public double score(byte[] plain, int off, int len) {
+            if (off < 0 || len < 0 || off + len > plain.length) throw new IndexOutOfBoundsException("数组范围越界");
+            if (len == 0) return 0;
+            long good = 0;
+            int i = off, end = off + len;
+            while (i < end) {
+                int b = plain[i] & 0xFF;
+                int n = b < 0x80 ? 0 : b >= 0xC2 && b <= 0xDF ? 1 : b >= 0xE0 && b <= 0xEF ? 2 : b >= 0xF0 && b <= 0xF4 ? 3 : -1;
+                if (n == 0) {
+                    if (b >= 0x20 && b != 0x7F || b == '\t' || b == '\n' || b == '\r') good++;
+                    i++;
+                    continue;
+                }
+                // 多字节序列：后续字节必须都是 10xxxxxx；前缀被截断在末尾时按合法计
+                int j = 1;
+                while (n > 0 && j <= n && i + j < end && (plain[i + j] & 0xC0) == 0x80) j++;
+                if (n > 0 && (j > n || i + j == end)) {
+                    good += j;
+                    i += j;
+                } else {
+                    i++; // 非法字节
+                }
+            }
+            return good / (double) len;
+        }
+    };
+
+    /** 全部内置打分器 */
+    public static PlaintextScorer[] all() {
+        return new PlaintextScorer[] { PRINTABLE, ENGLISH, UTF8 };
+    }
+
+    /**
+     * 按名称取得打分器
+     * @throws IllegalArgumentException 未知名称
+     */
+    public static PlaintextScorer byName(String name) {
+        for (PlaintextScorer s : all()) {
+            if (s.name().equalsIgnoreCase(name)) return s;
+        }
+        throw new IllegalArgumentException("未知打分器：" + name + "（可选 printable、english、utf8）");
+    }
+
+    // 字节所属类别：0..25 字母，26 空格，27 其他可打印，28 换行/制表，29 其余
+    private static int category(int b) {
+        if (b >= 'a' && b <= 'z') return b - 'a';
+        if (b >= 'A' && b <= 'Z') return b - 'A';
+        if (b == ' ') return 26;
+        if (b > 0x20 && b < 0x7F) return 27;
+        if (b == '\n' || b == '\t' || b == '\r') return 28;
+        return 29;
+    }
+}
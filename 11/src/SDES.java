@@ -4,6 +4,11 @@
  *
  * Java 8
  * 全部注释为中文，按题目给定的置换表、S-box、扩展/置换实现
+ *
+ * 核心运算基于 int 位运算（每个分组不分配任何对象），
+ * 原有的二进制字符串接口只是其上的薄包装；
+ * 子密钥通过 SDESKey 的预计算表获得，不再逐分组重新扩展。
+ * 各入口的调用次数与耗时记录在 SDESMetrics 中。
  */
 public class SDES {
     // 使用题目中的置换表（以 1-based 形式写出，调用时减 1）
@@ -28,122 +33,212 @@ public class SDES {
             {2,1,0,3}
     };
 
-    // ---------- 公共接口 ----------
+    // ---------- 公共接口（字符串形式） ----------
     /**
      * 生成子密钥 k1、k2（每个为 8-bit 的二进制字符串）
      * @param key10 10-bit 字符串 "1010010010"
      * @return 长度为 2 的字符串数组 {k1, k2}
      */
     public static String[] generateSubKeys(String key10) {
-        if (key10 == null || key10.length() != 10 || !key10.matches("[01]{10}"))
-            throw new IllegalArgumentException("密钥必须为10位二进制字符串");
+        int packed = generateSubKeys(parseBits(key10, 10, "密钥必须为10位二进制字符串"));
+        return new String[] { byteTo8Bits(packed >>> 8), byteTo8Bits(packed) };
+    }
 
-        String p10 = permute(key10, P10);
-        String left = p10.substring(0,5);
-        String right = p10.substring(5);
+    /**
+     * 加密 8-bit 分组（字符串形式），返回 8-bit 字符串
+     */
+    public static String encryptBlock(String plain8, String key10) {
+        int key = parseBits(key10, 10, "密钥必须为10位二进制字符串");
+        int block = parseBits(plain8, 8, "输入分组必须为8位二进制字符串");
+        return byteTo8Bits(encrypt(block, key));
+    }
+
+    /**
+     * 解密 8-bit 分组（字符串形式），返回 8-bit 字符串
+     */
+    public static String decryptBlock(String cipher8, String key10) {
+        int key = parseBits(key10, 10, "密钥必须为10位二进制字符串");
+        int block = parseBits(cipher8, 8, "输入分组必须为8位二进制字符串");
+        return byteTo8Bits(decrypt(block, key));
+    }
+
+    // ---------- 公共接口（int / byte 形式） ----------
+    /**
+     * 生成子密钥（int 形式）
+     * @param key10 0..1023 的 10-bit 密钥
+     * @return 打包后的子密钥：高 8 位为 k1，低 8 位为 k2
+     */
+    public static int generateSubKeys(int key10) {
+        checkKey(key10);
+        long t0 = SDESMetrics.start();
+        int p10 = permute(key10, P10, 10);
+        int left = p10 >>> 5;
+        int right = p10 & 0x1F;
 
         // 左循环移位 1
-        left = leftShift(left, 1);
-        right = leftShift(right, 1);
-        String k1 = permute(left + right, P8);
+        left = rotl5(left, 1);
+        right = rotl5(right, 1);
+        int k1 = permute((left << 5) | right, P8, 10);
 
         // 在第一次左移的基础上再左移 2
-        left = leftShift(left, 2);
-        right = leftShift(right, 2);
-        String k2 = permute(left + right, P8);
+        left = rotl5(left, 2);
+        right = rotl5(right, 2);
+        int k2 = permute((left << 5) | right, P8, 10);
 
-        return new String[] { k1, k2 };
+        SDESMetrics.keySchedule(t0);
+        return (k1 << 8) | k2;
     }
 
     /**
-     * 加密 8-bit 分组（字符串形式），返回 8-bit 字符串
+     * 加密单个 8-bit 分组
+     * @param block 0..255 的明文分组（只取低 8 位）
+     * @param key10 0..1023 的 10-bit 密钥
+     * 使用默认引擎（见 SDESEngines.defaultEngine）
      */
-    public static String encryptBlock(String plain8, String key10) {
-        String[] keys = generateSubKeys(key10);
-        return sdesEncrypt(plain8, keys[0], keys[1]);
+    public static int encrypt(int block, int key10) {
+        return SDESEngines.defaultEngine().encrypt(block, key10);
     }
 
     /**
-     * 解密 8-bit 分组（字符串形式），返回 8-bit 字符串
+     * 解密单个 8-bit 分组
      */
-    public static String decryptBlock(String cipher8, String key10) {
-        String[] keys = generateSubKeys(key10);
-        // 解密：子密钥顺序反过来
-        return sdesEncrypt(cipher8, keys[1], keys[0]);
+    public static int decrypt(int block, int key10) {
+        return SDESEngines.defaultEngine().decrypt(block, key10);
     }
 
-    // ---------- 内部实现 ----------
+    /**
+     * 批量加密：in[off..off+len) 逐字节加密写入 out[outOff..)，in 与 out 可以是同一数组
+     * 使用默认引擎（见 SDESEngines.defaultEngine）
+     */
+    public static void encrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        SDESEngines.defaultEngine().encrypt(in, off, len, out, outOff, key10);
+    }
+
+    /**
+     * 批量解密，参数含义同 {@link #encrypt(byte[], int, int, byte[], int, int)}
+     */
+    public static void decrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        SDESEngines.defaultEngine().decrypt(in, off, len, out, outOff, key10);
+    }
 
-    // 完整的两轮 S-DES 流程，参数为两个子密钥（k1, k2）
-    private static String sdesEncrypt(String input8, String k1, String k2) {
-        if (input8 == null || input8.length() != 8 || !input8.matches("[01]{8}"))
-            throw new IllegalArgumentException("输入分组必须为8位二进制字符串");
+    // ---------- 多重加密 ----------
+    /**
+     * 双重加密：C = E(key2, E(key1, P))，密钥空间 2^20
+     */
+    public static int encryptDouble(int block, int key1, int key2) {
+        return SDESKey.of(key2).encrypt(SDESKey.of(key1).encrypt(block));
+    }
 
-        // 初始置换 IP
-        String ip = permute(input8, IP);
-        String L = ip.substring(0,4);
-        String R = ip.substring(4);
+    /**
+     * 双重解密：P = D(key1, D(key2, C))
+     */
+    public static int decryptDouble(int block, int key1, int key2) {
+        return SDESKey.of(key1).decrypt(SDESKey.of(key2).decrypt(block));
+    }
 
+    /**
+     * 三重加密（EDE）：C = E(key3, D(key2, E(key1, P)))；两密钥版本令 key3 = key1
+     */
+    public static int encryptTriple(int block, int key1, int key2, int key3) {
+        return SDESKey.of(key3).encrypt(SDESKey.of(key2).decrypt(SDESKey.of(key1).encrypt(block)));
+    }
+
+    /**
+     * 三重解密（EDE 的逆）：P = D(key1, E(key2, D(key3, C)))
+     */
+    public static int decryptTriple(int block, int key1, int key2, int key3) {
+        return SDESKey.of(key1).decrypt(SDESKey.of(key2).encrypt(SDESKey.of(key3).decrypt(block)));
+    }
+
+    /**
+     * 使用已展开的子密钥完成两轮 S-DES（加密传 k1,k2；解密传 k2,k1）
+     */
+    public static int crypt(int block, int k1, int k2) {
+        // 初始置换 IP
+        int ip = permute(block & 0xFF, IP, 8);
         // 轮 1
-        String f1 = fk(L, R, k1); // 返回 8 位 (L'|R)
+        int f1 = fk(ip, k1);
         // 交换 SW
-        String swapped = f1.substring(4) + f1.substring(0,4);
+        int swapped = ((f1 & 0xF) << 4) | (f1 >>> 4);
         // 轮 2
-        String f2 = fk(swapped.substring(0,4), swapped.substring(4), k2);
+        int f2 = fk(swapped, k2);
         // 最后逆置换
-        String preOutput = f2;
-        String output = permute(preOutput, IP_INV);
-        return output;
+        return permute(f2, IP_INV, 8);
+    }
+
+    // ---------- 轮结构的组成部分（供查表 / 向量化实现构造表） ----------
+    /**
+     * 轮函数 F：4-bit 右半与 8-bit 子密钥 -> 4-bit，一轮为 L' = L ^ F(R, k)
+     */
+    public static int roundFunction(int right4, int subkey) {
+        return fk(right4 & 0xF, subkey & 0xFF) >>> 4;
     }
 
-    // 轮函数 fk：输入 L(4) R(4) 和子密钥（8），返回新的 8 位 (L'|R)
-    private static String fk(String L, String R, String subkey) {
-        // E/P 扩展 R -> 8 位
-        String ep = permute(R, EP);
-        // 与子密钥异或
-        String xor = xorBits(ep, subkey);
+    /** 初始置换 IP（8-bit） */
+    public static int initialPermutation(int block) {
+        return permute(block & 0xFF, IP, 8);
+    }
+
+    /** 逆初始置换 IP^-1（8-bit） */
+    public static int finalPermutation(int block) {
+        return permute(block & 0xFF, IP_INV, 8);
+    }
+
+    // ---------- 内部实现 ----------
+
+    // 轮函数 fk：输入 8 位 (L|R) 和子密钥（8），返回新的 8 位 (L'|R)
+    private static int fk(int lr, int subkey) {
+        int L = lr >>> 4;
+        int R = lr & 0xF;
+        // E/P 扩展 R -> 8 位，与子密钥异或
+        int xor = permute(R, EP, 4) ^ subkey;
         // 分为左右 4 位，输入到两个 S-box
-        String left4 = xor.substring(0,4);
-        String right4 = xor.substring(4);
-        String s1out = sboxLookup(left4, SBOX1);
-        String s2out = sboxLookup(right4, SBOX2);
-        String combined = s1out + s2out; // 4 位
-        String p4 = permute(combined, P4);
-        String leftXor = xorBits(L, p4); // 4 位
-        // 返回 L' | R (注意：这里返回 L' then original R)
-        return leftXor + R;
-    }
-
-    // S-box 查表，输入 4-bit，输出 2-bit 字符串
-    private static String sboxLookup(String in4, int[][] sbox) {
-        // 行由 b0 b3 构成，列由 b1 b2 构成
-        int row = Integer.parseInt("" + in4.charAt(0) + in4.charAt(3), 2);
-        int col = Integer.parseInt(in4.substring(1,3), 2);
-        int val = sbox[row][col]; // 0..3
-        return String.format("%2s", Integer.toBinaryString(val)).replace(' ', '0');
-    }
-
-    // 二进制字符串异或（长度相同）
-    private static String xorBits(String a, String b) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < a.length(); ++i) {
-            sb.append(a.charAt(i) == b.charAt(i) ? '0' : '1');
-        }
-        return sb.toString();
+        int s1out = sboxLookup(xor >>> 4, SBOX1);
+        int s2out = sboxLookup(xor & 0xF, SBOX2);
+        int p4 = permute((s1out << 2) | s2out, P4, 4);
+        return ((L ^ p4) << 4) | R;
+    }
+
+    // S-box 查表，输入 4-bit，输出 2-bit
+    private static int sboxLookup(int in4, int[][] sbox) {
+        // 行由 b0 b3 构成，列由 b1 b2 构成（b0 为最高位）
+        int row = ((in4 >>> 2) & 0x2) | (in4 & 0x1);
+        int col = (in4 >>> 1) & 0x3;
+        return sbox[row][col];
     }
 
-    // 置换函数（table 中为题目给出的 1-based 索引）
-    private static String permute(String bits, int[] table) {
-        StringBuilder sb = new StringBuilder();
+    // 置换函数：bits 为 width 位整数，最高位对应题目中的第 1 位
+    private static int permute(int bits, int[] table, int width) {
+        int out = 0;
         for (int idx : table) {
-            sb.append(bits.charAt(idx - 1));
+            out = (out << 1) | ((bits >>> (width - idx)) & 1);
         }
-        return sb.toString();
+        return out;
+    }
+
+    // 5 位循环左移
+    private static int rotl5(int v, int n) {
+        return ((v << n) | (v >>> (5 - n))) & 0x1F;
+    }
+
+    private static void checkKey(int key10) {
+        if ((key10 & ~0x3FF) != 0)
+            throw new IllegalArgumentException("密钥必须在 0..1023 范围内");
     }
 
-    // 循环左移
-    private static String leftShift(String s, int n) {
-        return s.substring(n) + s.substring(0, n);
+    /**
+     * 解析定长二进制字符串（如 "01010101"）
+     * @throws IllegalArgumentException 长度不符或含有 0/1 以外的字符，异常信息为 message
+     */
+    public static int parseBits(String s, int width, String message) {
+        if (s == null || s.length() != width) throw new IllegalArgumentException(message);
+        int v = 0;
+        for (int i = 0; i < width; ++i) {
+            char c = s.charAt(i);
+            if (c != '0' && c != '1') throw new IllegalArgumentException(message);
+            v = (v << 1) | (c - '0');
+        }
+        return v;
     }
 
     // ---------- 辅助：将字节值转 8-bit 二进制（用于 ASCII 模式） ----------
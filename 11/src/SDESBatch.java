@@ -0,0 +1,168 @@
+/**
+ * SDESBatch.java
+ * 多密钥批量加解密：同一组分组在多个密钥下的结果
+ *
+ * 封闭测试、暴力破解、中间相遇攻击的前半表、测试向量生成等都归结为"同一批分组 × 许多密钥"，
+ * 这里提供统一的实现，不再各自写嵌套循环、逐对重新扩展密钥：
+ *   - 每个密钥只用查表引擎中属于它的一行（256 字节），始终留在 L1 缓存中；
+ *   - 分组较多时按 TILE 分块，同一块分组在一段密钥上依次处理，分组数据也保持在缓存中；
+ *   - 密钥按段分给 ForkJoinPool 并行，各段写入结果矩阵中互不重叠的行。
+ *
+ * 结果可以是一个扁平矩阵（第 i 行为 keys[i] 下的结果），也可以逐行交给回调（不占矩阵内存，可提前终止）。
+ */
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class SDESBatch {
+    // 每个并行任务处理的密钥数
+    private static final int KEYS_PER_TASK = 16;
+    // 分组分块大小（字节），与 256 字节的表行一起留在 L1 中
+    private static final int TILE = 8 * 1024;
+
+    private SDESBatch() {
+    }
+
+    /** 逐行接收结果的回调；并行时可能在多个线程上同时被调用 */
+    public interface RowConsumer {
+        /**
+         * @param index 密钥在 keys 中的下标
+         * @param key10 密钥
+         * @param row   结果所在数组，只在本次调用期间有效（之后会被复用）
+         * @return false 表示停止，尚未处理的密钥不再回调
+         */
+        boolean accept(int index, int key10, byte[] row, int rowOff, int len);
+    }
+
+    /** [from, to) 范围内的全部密钥 */
+    public static int[] keyRange(int from, int to) {
+        if (from < 0 || to > SDESKey.KEY_COUNT || from > to)
+            throw new IllegalArgumentException("密钥范围必须在 0..1024 内：" + from + ".." + to);
+        int[] keys = new int[to - from];
+        for (int i = 0; i < keys.length; ++i) keys[i] = from + i;
+        return keys;
+    }
+
+    /**
+     * 在公共 ForkJoinPool 上把 blocks 在每个密钥下加密
+     * @return keys.length × blocks.length 的扁平矩阵，第 i 行为 keys[i] 下的密文
+     */
+    public static byte[] encrypt(byte[] blocks, int[] keys) {
+        return run(blocks, 0, blocks.length, keys, true, ForkJoinPool.commonPool());
+    }
+
+    /** 解密版本，参数与结果布局同 {@link #encrypt(byte[], int[])} */
+    public static byte[] decrypt(byte[] blocks, int[] keys) {
+        return run(blocks, 0, blocks.length, keys, false, ForkJoinPool.commonPool());
+    }
+
+    /** 在 [from, to) 内的全部密钥下加密，第 i 行对应密钥 from + i */
+    public static byte[] encryptRange(byte[] blocks, int from, int to) {
+        return encrypt(blocks, keyRange(from, to));
+    }
+
+    /**
+     * 计算结果矩阵
+     * @param encrypt true 加密，false 解密
+     * @param pool    为 null 时在当前线程上顺序计算
+     */
+    public static byte[] run(byte[] blocks, int off, int len, int[] keys, boolean encrypt, ForkJoinPool pool) {
+        check(blocks, off, len, keys);
+        if ((long) keys.length * len > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("结果矩阵过大，请改用 forEach 逐行处理");
+        byte[] out = new byte[keys.length * len];
+        Task task = new Task(blocks, off, len, keys, encrypt, out, null, null, pool != null, 0, keys.length);
+        if (pool == null) task.compute();
+        else pool.invoke(task);
+        return out;
+    }
+
+    /**
+     * 逐行把结果交给 consumer，不分配结果矩阵；每个任务复用一个 len 字节的行缓冲区
+     * @param pool 为 null 时在当前线程上按 keys 的顺序回调
+     * @return 全部密钥都已处理返回 true，被 consumer 提前终止返回 false
+     */
+    public static boolean forEach(byte[] blocks, int off, int len, int[] keys, boolean encrypt,
+                                  RowConsumer consumer, ForkJoinPool pool) {
+        check(blocks, off, len, keys);
+        if (consumer == null) throw new IllegalArgumentException("回调不能为空");
+        AtomicBoolean stopped = new AtomicBoolean();
+        Task task = new Task(blocks, off, len, keys, encrypt, null, consumer, stopped, pool != null,
+                0, keys.length);
+        if (pool == null) task.compute();
+        else pool.invoke(task);
+        return !stopped.get();
+    }
+
+    private static void check(byte[] blocks, int off, int len, int[] keys) {
+        if (off < 0 || len < 0 || off + len > blocks.length) throw new IndexOutOfBoundsException("数组范围越界");
+        for (int k : keys) {
+            if ((k & ~0x3FF) != 0) throw new IllegalArgumentException("密钥必须在 0..1023 范围内：" + k);
+        }
+    }
+
+    // 密钥下标 [lo, hi) 的一段
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final byte[] blocks;
+        private final int off;
+        private final int len;
+        private final int[] keys;
+        private final boolean encrypt;
+        private final byte[] out;            // 矩阵模式
+        private final RowConsumer consumer;  // 回调模式
+        private final AtomicBoolean stopped;
+        private final boolean parallel;
+        private final int lo;
+        private final int hi;
+
+        Task(byte[] blocks, int off, int len, int[] keys, boolean encrypt, byte[] out, RowConsumer consumer,
+             AtomicBoolean stopped, boolean parallel, int lo, int hi) {
+            this.blocks = blocks;
+            this.off = off;
+            this.len = len;
+            this.keys = keys;
+            this.encrypt = encrypt;
+            this.out = out;
+            this.consumer = consumer;
+            this.stopped = stopped;
+            this.parallel = parallel;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (parallel && hi - lo > KEYS_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Task(blocks, off, len, keys, encrypt, out, consumer, stopped, true, lo, mid),
+                        new Task(blocks, off, len, keys, encrypt, out, consumer, stopped, true, mid, hi));
+                return;
+            }
+            byte[] table = encrypt ? SDESTableEngine.encryptTable() : SDESTableEngine.decryptTable();
+            if (out != null) {
+                for (int t = 0; t < len; t += TILE) {
+                    int end = Math.min(len, t + TILE);
+                    for (int i = lo; i < hi; ++i) {
+                        int base = keys[i] << 8;
+                        int row = i * len;
+                        for (int j = t; j < end; ++j) out[row + j] = table[base | (blocks[off + j] & 0xFF)];
+                    }
+                }
+                SDESMetrics.scanWork(hi - lo);
+                return;
+            }
+            byte[] row = new byte[len];
+            int i = lo;
+            for (; i < hi && !stopped.get(); ++i) {
+                int base = keys[i] << 8;
+                for (int j = 0; j < len; ++j) row[j] = table[base | (blocks[off + j] & 0xFF)];
+                if (!consumer.accept(i, keys[i], row, 0, len)) {
+                    stopped.set(true);
+                    break;
+                }
+            }
+            SDESMetrics.scanWork(i - lo);
+        }
+    }
+}
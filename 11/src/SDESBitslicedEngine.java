@@ -0,0 +1,223 @@
+/**
+ * SDESBitslicedEngine.java
+ * 位切片（bitslice）引擎：分组的每一个比特位单独放在一个 long 中，一次运算同时处理 64 路
+ *
+ * 两种用法共用同一个电路：
+ *   - 批量 ECB：64 个分组 × 同一密钥，每 64 字节经 8×8 位矩阵转置后走一遍电路；
+ *   - 密钥扫描：同一分组 × 64 个密钥，一次检验 64 个密钥，16 轮即覆盖整个密钥空间。
+ * S 盒写成布尔表达式（由真值表求得的代数正规形），各置换只是变量的重新连线，不产生运算。
+ * 单个分组的接口没有并行可言，直接交给逐位计算的核心。
+ */
+public final class SDESBitslicedEngine implements SDESEngine {
+    static final SDESBitslicedEngine INSTANCE = new SDESBitslicedEngine();
+
+    // 子密钥的第 j 位（最高位为 0）来自 10-bit 密钥的第 K1_SRC[j] / K2_SRC[j] 位（最高位为 0）
+    private static final int[] K1_SRC = new int[8];
+    private static final int[] K2_SRC = new int[8];
+
+    // 密钥扫描时，一批 64 个连续密钥的低 6 位在各通道上的取值模式
+    private static final long[] LANE_PATTERN = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    static {
+        // 密钥扩展（P10、循环移位、P8）都是比特位的置换，逐位探测即可得到连线关系
+        for (int i = 0; i < 10; ++i) {
+            int keys = SDES.generateSubKeys(1 << (9 - i));
+            for (int j = 0; j < 8; ++j) {
+                if (((keys >>> (15 - j)) & 1) != 0) K1_SRC[j] = i;
+                if (((keys >>> (7 - j)) & 1) != 0) K2_SRC[j] = i;
+            }
+        }
+    }
+
+    private SDESBitslicedEngine() {
+    }
+
+    @Override
+    public String name() {
+        return "bitsliced";
+    }
+
+    @Override
+    public int encrypt(int block, int key10) {
+        SDESMetrics.block(true);
+        return SDESKey.of(key10).encrypt(block);
+    }
+
+    @Override
+    public int decrypt(int block, int key10) {
+        SDESMetrics.block(false);
+        return SDESKey.of(key10).decrypt(block);
+    }
+
+    @Override
+    public void encrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        SDESKey key = SDESKey.of(key10);
+        long t0 = SDESMetrics.start();
+        bulk(in, off, len, out, outOff, key.k1(), key.k2());
+        SDESMetrics.bulk(true, len, t0);
+    }
+
+    @Override
+    public void decrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        SDESKey key = SDESKey.of(key10);
+        long t0 = SDESMetrics.start();
+        bulk(in, off, len, out, outOff, key.k2(), key.k1());
+        SDESMetrics.bulk(false, len, t0);
+    }
+
+    /**
+     * 位切片扫描整个密钥空间：求能把所有 plain[i] 加密为 cipher[i] 的密钥
+     * @param dst 候选密钥位图（长度至少 16），第 k 位表示密钥 k
+     * @return 候选密钥个数
+     */
+    public static int scan(byte[] plain, int plainOff, byte[] cipher, int cipherOff, int n, long[] dst) {
+        if (n <= 0) throw new IllegalArgumentException("至少需要一对明文/密文");
+        if (plainOff < 0 || cipherOff < 0 || plainOff + n > plain.length || cipherOff + n > cipher.length)
+            throw new IndexOutOfBoundsException("数组范围越界");
+        if (dst.length < SDESKey.KEY_COUNT >>> 6) throw new IllegalArgumentException("结果数组长度不足");
+        long[] keyBits = new long[10];
+        long[] k1 = new long[8];
+        long[] k2 = new long[8];
+        long[] s = new long[8];
+        long[] f = new long[4];
+        int count = 0;
+        for (int batch = 0; batch < SDESKey.KEY_COUNT >>> 6; ++batch) {
+            // 本批密钥为 batch*64 .. batch*64+63
+            for (int i = 0; i < 10; ++i) {
+                int weight = 9 - i;
+                keyBits[i] = weight < 6 ? LANE_PATTERN[weight] : (((batch >>> (weight - 6)) & 1) != 0 ? -1L : 0L);
+            }
+            for (int j = 0; j < 8; ++j) {
+                k1[j] = keyBits[K1_SRC[j]];
+                k2[j] = keyBits[K2_SRC[j]];
+            }
+            long match = -1L;
+            for (int p = 0; p < n && match != 0; ++p) {
+                int pb = plain[plainOff + p] & 0xFF;
+                int cb = cipher[cipherOff + p] & 0xFF;
+                for (int i = 0; i < 8; ++i) s[i] = ((pb >>> (7 - i)) & 1) != 0 ? -1L : 0L;
+                circuit(s, k1, k2, f);
+                for (int i = 0; i < 8; ++i) {
+                    match &= ((cb >>> (7 - i)) & 1) != 0 ? s[i] : ~s[i];
+                }
+            }
+            dst[batch] = match;
+            count += Long.bitCount(match);
+        }
+        return count;
+    }
+
+    /** 位切片扫描整个密钥空间，返回升序的候选密钥 */
+    public static int[] scanKeys(byte[] plain, byte[] cipher) {
+        if (plain.length != cipher.length) throw new IllegalArgumentException("明文与密文长度必须一致");
+        long t0 = SDESMetrics.start();
+        long[] bits = new long[SDESKey.KEY_COUNT >>> 6];
+        scan(plain, 0, cipher, 0, plain.length, bits);
+        SDESMetrics.scanWork(SDESKey.KEY_COUNT);
+        SDESMetrics.search(SDESKey.KEY_COUNT, t0);
+        return KeyRecovery.keys(bits);
+    }
+
+    // ---------- 内部实现 ----------
+
+    // 每 64 字节一组做位切片，不足 64 字节的尾部走逐位计算
+    private static void bulk(byte[] in, int off, int len, byte[] out, int outOff, int sk1, int sk2) {
+        SDESKey.checkRange(in, off, len, out, outOff);
+        long[] k1 = new long[8];
+        long[] k2 = new long[8];
+        for (int j = 0; j < 8; ++j) {
+            k1[j] = ((sk1 >>> (7 - j)) & 1) != 0 ? -1L : 0L;
+            k2[j] = ((sk2 >>> (7 - j)) & 1) != 0 ? -1L : 0L;
+        }
+        long[] s = new long[8];
+        long[] f = new long[4];
+        int i = 0;
+        for (; i + 64 <= len; i += 64) {
+            load(in, off + i, s);
+            circuit(s, k1, k2, f);
+            store(s, out, outOff + i);
+        }
+        for (; i < len; ++i) {
+            out[outOff + i] = (byte) SDES.crypt(in[off + i], sk1, sk2);
+        }
+    }
+
+    // 64 个字节 -> 8 个位平面：s[r] 为各字节第 r 位（最高位 r=0）
+    private static void load(byte[] in, int off, long[] s) {
+        for (int r = 0; r < 8; ++r) s[r] = 0;
+        for (int g = 0; g < 8; ++g) {
+            long m = 0;
+            for (int b = 0; b < 8; ++b) m = (m << 8) | (in[off + (g << 3) + b] & 0xFF);
+            long t = transpose8(m);
+            for (int r = 0; r < 8; ++r) {
+                s[r] |= ((t >>> (56 - (r << 3))) & 0xFF) << (g << 3);
+            }
+        }
+    }
+
+    // load 的逆过程（8×8 转置是对合变换）
+    private static void store(long[] s, byte[] out, int off) {
+        for (int g = 0; g < 8; ++g) {
+            long t = 0;
+            for (int r = 0; r < 8; ++r) {
+                t |= ((s[r] >>> (g << 3)) & 0xFF) << (56 - (r << 3));
+            }
+            long m = transpose8(t);
+            for (int b = 7; b >= 0; --b) {
+                out[off + (g << 3) + b] = (byte) m;
+                m >>>= 8;
+            }
+        }
+    }
+
+    // 8×8 位矩阵转置（每字节为一行，最高字节为第 0 行）
+    private static long transpose8(long x) {
+        long t;
+        t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+        x = x ^ t ^ (t << 7);
+        t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+        x = x ^ t ^ (t << 14);
+        t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+        x = x ^ t ^ (t << 28);
+        return x;
+    }
+
+    /**
+     * 两轮 S-DES 电路：s 为 8 个位平面（原地变换），k1/k2 为子密钥的 8 个位平面，f 为 4 个 long 的临时区
+     */
+    static void circuit(long[] s, long[] k1, long[] k2, long[] f) {
+        // IP = {2,6,3,1,4,8,5,7}
+        long l0 = s[1], l1 = s[5], l2 = s[2], l3 = s[0];
+        long r0 = s[3], r1 = s[7], r2 = s[4], r3 = s[6];
+
+        // 轮 1：L ^= F(R, k1)
+        round(r0, r1, r2, r3, k1, f);
+        l0 ^= f[0]; l1 ^= f[1]; l2 ^= f[2]; l3 ^= f[3];
+
+        // 交换后轮 2：(R ^ F(L', k2)) | L'
+        round(l0, l1, l2, l3, k2, f);
+        long a0 = r0 ^ f[0], a1 = r1 ^ f[1], a2 = r2 ^ f[2], a3 = r3 ^ f[3];
+
+        // IP^-1 = {4,1,3,5,7,2,8,6}，作用于 (a0..a3, l0..l3)
+        s[0] = a3; s[1] = a0; s[2] = a2; s[3] = l0;
+        s[4] = l2; s[5] = a1; s[6] = l3; s[7] = l1;
+    }
+
+    // F 函数：E/P 扩展、异或子密钥、两个 S 盒、P4，结果写入 f[0..3]
+    private static void round(long r0, long r1, long r2, long r3, long[] k, long[] f) {
+        // E/P = {4,1,2,3,2,3,4,1}
+        long a = r3 ^ k[0], b = r0 ^ k[1], c = r1 ^ k[2], d = r2 ^ k[3];
+        // S1：行 = (a,d)，列 = (b,c)
+        long s1hi = d ^ b ^ (a & c) ^ (a & b) ^ (a & b & d);
+        long s1lo = ~(c ^ a ^ (a & d) ^ (a & c) ^ (a & b));
+        a = r1 ^ k[4]; b = r2 ^ k[5]; c = r3 ^ k[6]; d = r0 ^ k[7];
+        // S2
+        long s2hi = d ^ b ^ a ^ (a & d) ^ (a & c);
+        long s2lo = c ^ (b & d) ^ a ^ (a & d) ^ (a & b & d);
+        // P4 = {2,4,3,1}，作用于 (s1hi, s1lo, s2hi, s2lo)
+        f[0] = s1lo; f[1] = s2lo; f[2] = s2hi; f[3] = s1hi;
+    }
+}
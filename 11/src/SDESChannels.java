@@ -0,0 +1,52 @@
+/**
+ * SDESChannels.java
+ * NIO 通道上的 S-DES 流式变换：从 ReadableByteChannel 读出，变换后写入 WritableByteChannel
+ *
+ * 只使用一个固定大小的堆缓冲区，可以处理任意大小（包括数 GB）的数据。
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+public final class SDESChannels {
+    /** 默认缓冲区大小 */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private SDESChannels() {
+    }
+
+    /**
+     * 使用默认引擎和默认缓冲区大小完成变换
+     * @return 处理的字节数
+     */
+    public static long transform(ReadableByteChannel src, WritableByteChannel dst, SDESKey key, boolean encrypt)
+            throws IOException {
+        return transform(src, dst, key, encrypt, SDESEngines.defaultEngine(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 读到 src 末尾为止，逐块变换并写入 dst（不关闭任何通道）
+     * @param encrypt true 加密，false 解密
+     * @return 处理的字节数
+     */
+    public static long transform(ReadableByteChannel src, WritableByteChannel dst, SDESKey key, boolean encrypt,
+                                 SDESEngine engine, int bufferSize) throws IOException {
+        if (key == null || engine == null) throw new IllegalArgumentException("密钥和引擎不能为空");
+        if (bufferSize <= 0) throw new IllegalArgumentException("缓冲区大小必须为正数");
+        int key10 = key.key10();
+        ByteBuffer buf = ByteBuffer.allocate(bufferSize);
+        byte[] arr = buf.array();
+        long total = 0;
+        while (src.read(buf) >= 0 || buf.position() > 0) {
+            int n = buf.position();
+            if (encrypt) engine.encrypt(arr, 0, n, arr, 0, key10);
+            else engine.decrypt(arr, 0, n, arr, 0, key10);
+            buf.flip();
+            while (buf.hasRemaining()) dst.write(buf);
+            buf.clear();
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * SDESCodec.java
+ * 字节数据与文本表示之间的编解码（见 SDESCodecs 中的二进制串、十六进制、Base64）
+ *
+ * 引擎只处理 byte[]；文本表示只在界面、命令行等边缘使用。
+ */
+public interface SDESCodec {
+    /** 编码名称 */
+    String name();
+
+    /** 字节 -> 文本 */
+    String encode(byte[] data, int off, int len);
+
+    /**
+     * 文本 -> 字节（忽略首尾空白）
+     * @throws IllegalArgumentException 文本格式错误
+     */
+    byte[] decode(String text);
+}
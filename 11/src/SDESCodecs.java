@@ -0,0 +1,144 @@
+/**
+ * SDESCodecs.java
+ * 编解码实现与文本的 UTF-8 转换
+ *
+ *   BITS    每字节 8 个 '0'/'1' 字符（原有界面的格式，8 倍膨胀，UTF-16 下为 16 倍）
+ *   HEX     每字节 2 个十六进制字符
+ *   BASE64  每 3 字节 4 个字符
+ * 文本输入统一按 UTF-8 编码为字节，不再只取每个 char 的低 8 位。
+ */
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class SDESCodecs {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private SDESCodecs() {
+    }
+
+    public static final SDESCodec BITS = new SDESCodec() {
+        @Override
+        public String name() {
+            return "bits";
+        }
+
+        @Override
+        public String encode(byte[] data, int off, int len) {
+            checkRange(data, off, len);
+            char[] out = new char[len * 8];
+            for (int i = 0; i < len; ++i) {
+                int v = data[off + i];
+                for (int b = 0; b < 8; ++b) out[i * 8 + b] = (char) ('0' + ((v >>> (7 - b)) & 1));
+            }
+            return new String(out);
+        }
+
+        @Override
+        public byte[] decode(String text) {
+            String s = text.trim();
+            if (s.length() % 8 != 0) throw new IllegalArgumentException("二进制串长度必须为 8 的倍数");
+            byte[] out = new byte[s.length() / 8];
+            for (int i = 0; i < out.length; ++i) {
+                int v = 0;
+                for (int b = 0; b < 8; ++b) {
+                    char c = s.charAt(i * 8 + b);
+                    if (c != '0' && c != '1') throw new IllegalArgumentException("二进制串只能包含 0 和 1");
+                    v = (v << 1) | (c - '0');
+                }
+                out[i] = (byte) v;
+            }
+            return out;
+        }
+    };
+
+    public static final SDESCodec HEX = new SDESCodec() {
+        @Override
+        public String name() {
+            return "hex";
+        }
+
+        @Override
+        public String encode(byte[] data, int off, int len) {
+            checkRange(data, off, len);
+            char[] out = new char[len * 2];
+            for (int i = 0; i < len; ++i) {
+                int v = data[off + i] & 0xFF;
+                out[i * 2] = HEX_DIGITS[v >>> 4];
+                out[i * 2 + 1] = HEX_DIGITS[v & 0xF];
+            }
+            return new String(out);
+        }
+
+        @Override
+        public byte[] decode(String text) {
+            String s = text.trim();
+            if (s.length() % 2 != 0) throw new IllegalArgumentException("十六进制串长度必须为偶数");
+            byte[] out = new byte[s.length() / 2];
+            for (int i = 0; i < out.length; ++i) {
+                int hi = Character.digit(s.charAt(i * 2), 16);
+                int lo = Character.digit(s.charAt(i * 2 + 1), 16);
+                if (hi < 0 || lo < 0) throw new IllegalArgumentException("十六进制串含有非法字符");
+                out[i] = (byte) ((hi << 4) | lo);
+            }
+            return out;
+        }
+    };
+
+    public static final SDESCodec BASE64 = new SDESCodec() {
+        @Override
+        public String name() {
+            return "base64";
+        }
+
+        @Override
+        public String encode(byte[] data, int off, int len) {
+            checkRange(data, off, len);
+            byte[] slice = off == 0 && len == data.length ? data : java.util.Arrays.copyOfRange(data, off, off + len);
+            return Base64.getEncoder().encodeToString(slice);
+        }
+
+        @Override
+        public byte[] decode(String text) {
+            try {
+                return Base64.getDecoder().decode(text.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Base64 格式错误：" + e.getMessage());
+            }
+        }
+    };
+
+    /** 全部编码（界面下拉框的顺序） */
+    public static SDESCodec[] all() {
+        return new SDESCodec[] { BITS, HEX, BASE64 };
+    }
+
+    /**
+     * 按名称取得编码（不区分大小写）
+     * @throws IllegalArgumentException 名称未知
+     */
+    public static SDESCodec byName(String name) {
+        for (SDESCodec c : all()) {
+            if (c.name().equalsIgnoreCase(name)) return c;
+        }
+        throw new IllegalArgumentException("未知的编码：" + name);
+    }
+
+    /** 编码整个数组 */
+    public static String encode(SDESCodec codec, byte[] data) {
+        return codec.encode(data, 0, data.length);
+    }
+
+    /** 文本按 UTF-8 转为字节 */
+    public static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** UTF-8 字节转回文本（非法序列替换为 U+FFFD） */
+    public static String utf8(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static void checkRange(byte[] data, int off, int len) {
+        if (off < 0 || len < 0 || off + len > data.length) throw new IndexOutOfBoundsException("数组范围越界");
+    }
+}
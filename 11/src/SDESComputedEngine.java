@@ -0,0 +1,43 @@
+/**
+ * SDESComputedEngine.java
+ * 逐位计算的引擎：每个分组走一遍 IP / fk / SW / fk / IP^-1，只依赖 SDESKey 的子密钥表
+ *
+ * 几乎不占额外内存，适合内存受限的环境。
+ */
+public final class SDESComputedEngine implements SDESEngine {
+    static final SDESComputedEngine INSTANCE = new SDESComputedEngine();
+
+    private SDESComputedEngine() {
+    }
+
+    @Override
+    public String name() {
+        return "computed";
+    }
+
+    @Override
+    public int encrypt(int block, int key10) {
+        SDESMetrics.block(true);
+        return SDESKey.of(key10).encrypt(block);
+    }
+
+    @Override
+    public int decrypt(int block, int key10) {
+        SDESMetrics.block(false);
+        return SDESKey.of(key10).decrypt(block);
+    }
+
+    @Override
+    public void encrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        long t0 = SDESMetrics.start();
+        SDESKey.of(key10).encrypt(in, off, len, out, outOff);
+        SDESMetrics.bulk(true, len, t0);
+    }
+
+    @Override
+    public void decrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10) {
+        long t0 = SDESMetrics.start();
+        SDESKey.of(key10).decrypt(in, off, len, out, outOff);
+        SDESMetrics.bulk(false, len, t0);
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * SDESEngine.java
+ * S-DES 引擎接口：不同实现（逐位计算、查表等）输出完全一致，只是速度与内存占用不同
+ *
+ * 所有方法对同一个引擎实例都是线程安全的。
+ * 分组计数由实现负责：单分组方法调用 SDESMetrics.block，批量方法调用 SDESMetrics.bulk（见 SDESMetrics）。
+ */
+import java.nio.ByteBuffer;
+
+public interface SDESEngine {
+    /** 引擎名称（用于选择和日志） */
+    String name();
+
+    /** 加密单个 8-bit 分组，key10 为 0..1023 */
+    int encrypt(int block, int key10);
+
+    /** 解密单个 8-bit 分组，key10 为 0..1023 */
+    int decrypt(int block, int key10);
+
+    /** 批量加密 in[off..off+len) 写入 out[outOff..)，in 与 out 可以是同一数组 */
+    void encrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10);
+
+    /** 批量解密，参数含义同加密 */
+    void decrypt(byte[] in, int off, int len, byte[] out, int outOff, int key10);
+
+    /**
+     * 该密钥下全部 256 个分组的结果表（第 b 个字节为分组 b 加密或解密的结果），供链式模式逐字节查表；
+     * 返回新数组，不记录指标（由调用方按实际处理的分组数记录）
+     */
+    default byte[] table(boolean encrypt, int key10) {
+        SDESKey key = SDESKey.of(key10);
+        byte[] table = new byte[256];
+        for (int b = 0; b < 256; ++b) table[b] = (byte) (encrypt ? key.encrypt(b) : key.decrypt(b));
+        return table;
+    }
+
+    /**
+     * 批量加密 src 中剩余的全部字节写入 dst，两者的 position 都向后移动
+     * 堆缓冲区直接在底层数组上处理，直接缓冲区经由小块临时数组中转
+     */
+    default void encrypt(ByteBuffer src, ByteBuffer dst, int key10) {
+        SDESEngines.transform(this, true, src, dst, key10);
+    }
+
+    /** 批量解密，参数含义同 encrypt(ByteBuffer, ByteBuffer, int) */
+    default void decrypt(ByteBuffer src, ByteBuffer dst, int key10) {
+        SDESEngines.transform(this, false, src, dst, key10);
+    }
+}
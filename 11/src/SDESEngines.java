@@ -0,0 +1,123 @@
+/**
+ * SDESEngines.java
+ * 引擎选择：按名称取得引擎，或通过系统属性 sdes.engine 指定默认引擎
+ *
+ *   -Dsdes.engine=table     全查表（512 KB，适合批处理主机，默认）
+ *   -Dsdes.engine=computed  逐位计算（几乎不占内存，适合内存受限的容器）
+ *   -Dsdes.engine=bitsliced 位切片（64 路并行的布尔电路，不占额外内存）
+ *   -Dsdes.engine=vector    Vector API（SIMD），需要 sdes-vector.jar 与 --add-modules jdk.incubator.vector，
+ *                           不可用时回退到 table
+ */
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+public final class SDESEngines {
+    /** 选择默认引擎的系统属性名 */
+    public static final String ENGINE_PROPERTY = "sdes.engine";
+
+    private static volatile SDESEngine defaultEngine;
+
+    private SDESEngines() {
+    }
+
+    /** 逐位计算引擎 */
+    public static SDESEngine computed() {
+        return SDESComputedEngine.INSTANCE;
+    }
+
+    /** 全查表引擎（表在首次使用时构建） */
+    public static SDESEngine table() {
+        return SDESTableEngine.INSTANCE;
+    }
+
+    /** 位切片引擎 */
+    public static SDESEngine bitsliced() {
+        return SDESBitslicedEngine.INSTANCE;
+    }
+
+    /**
+     * Vector API 引擎；运行环境不支持时返回标量的全查表引擎
+     * @see #vectorAvailable()
+     */
+    public static SDESEngine vector() {
+        return VectorHolder.ENGINE != null ? VectorHolder.ENGINE : table();
+    }
+
+    /** Vector API 引擎是否可用（类路径上有 sdes-vector.jar 且已加入 jdk.incubator.vector 模块） */
+    public static boolean vectorAvailable() {
+        return VectorHolder.ENGINE != null;
+    }
+
+    /** 全部可用引擎（Vector API 引擎仅在可用时列出） */
+    public static SDESEngine[] all() {
+        if (vectorAvailable()) return new SDESEngine[] { computed(), table(), bitsliced(), vector() };
+        return new SDESEngine[] { computed(), table(), bitsliced() };
+    }
+
+    /**
+     * 按名称取得引擎
+     * @throws IllegalArgumentException 名称未知
+     */
+    public static SDESEngine byName(String name) {
+        if ("table".equalsIgnoreCase(name)) return table();
+        if ("computed".equalsIgnoreCase(name)) return computed();
+        if ("bitsliced".equalsIgnoreCase(name)) return bitsliced();
+        if ("vector".equalsIgnoreCase(name)) return vector();
+        throw new IllegalArgumentException("未知的引擎：" + name);
+    }
+
+    /** 默认引擎：由系统属性 sdes.engine 决定，未设置时为 table */
+    public static SDESEngine defaultEngine() {
+        SDESEngine e = defaultEngine;
+        if (e == null) {
+            e = byName(System.getProperty(ENGINE_PROPERTY, "table"));
+            defaultEngine = e;
+        }
+        return e;
+    }
+
+    /** 运行时切换默认引擎 */
+    public static void setDefaultEngine(SDESEngine engine) {
+        if (engine == null) throw new IllegalArgumentException("引擎不能为空");
+        defaultEngine = engine;
+    }
+
+    // 反射加载 SDESVectorEngine（单独编译的 sdes-vector.jar），失败时为 null
+    private static final class VectorHolder {
+        static final SDESEngine ENGINE = load();
+
+        private static SDESEngine load() {
+            try {
+                return (SDESEngine) Class.forName("SDESVectorEngine").getField("INSTANCE").get(null);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // 没有 jar、没有 jdk.incubator.vector 模块，或向量长度不足
+                return null;
+            }
+        }
+    }
+
+    // ByteBuffer 版本的批量变换（SDESEngine 默认方法的实现）
+    static void transform(SDESEngine engine, boolean encrypt, ByteBuffer src, ByteBuffer dst, int key10) {
+        int len = src.remaining();
+        if (dst.remaining() < len) throw new BufferOverflowException();
+        if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+            byte[] in = src.array();
+            int off = src.arrayOffset() + src.position();
+            byte[] out = dst.array();
+            int outOff = dst.arrayOffset() + dst.position();
+            if (encrypt) engine.encrypt(in, off, len, out, outOff, key10);
+            else engine.decrypt(in, off, len, out, outOff, key10);
+            src.position(src.position() + len);
+            dst.position(dst.position() + len);
+            return;
+        }
+        byte[] scratch = new byte[Math.min(len, 8192)];
+        while (src.hasRemaining()) {
+            int n = Math.min(scratch.length, src.remaining());
+            src.get(scratch, 0, n);
+            if (encrypt) engine.encrypt(scratch, 0, n, scratch, 0, key10);
+            else engine.decrypt(scratch, 0, n, scratch, 0, key10);
+            dst.put(scratch, 0, n);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * SDESInputStream.java
+ * 读取时逐字节做 S-DES 变换（ECB）的输入流
+ *
+ * 直接在调用方的数组上原地变换，不额外分配缓冲区。
+ */
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class SDESInputStream extends FilterInputStream {
+    private final SDESEngine engine;
+    private final int key10;
+    private final boolean encrypt;
+
+    /**
+     * @param in      上游输入流
+     * @param key     密钥
+     * @param encrypt true 加密，false 解密
+     */
+    public SDESInputStream(InputStream in, SDESKey key, boolean encrypt) {
+        this(in, key, encrypt, SDESEngines.defaultEngine());
+    }
+
+    public SDESInputStream(InputStream in, SDESKey key, boolean encrypt, SDESEngine engine) {
+        super(in);
+        if (key == null || engine == null) throw new IllegalArgumentException("密钥和引擎不能为空");
+        this.engine = engine;
+        this.key10 = key.key10();
+        this.encrypt = encrypt;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b < 0) return b;
+        return encrypt ? engine.encrypt(b, key10) : engine.decrypt(b, key10);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            if (encrypt) engine.encrypt(b, off, n, b, off, key10);
+            else engine.decrypt(b, off, n, b, off, key10);
+        }
+        return n;
+    }
+}
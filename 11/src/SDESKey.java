@@ -0,0 +1,101 @@
+/**
+ * SDESKey.java
+ * 已展开的 S-DES 密钥：校验和子密钥扩展只做一次，之后可重复用于任意多个分组
+ *
+ * 全部 1024 个密钥的 (k1, k2) 在类加载时预先计算好，
+ * of() 返回共享的不可变实例，因此多线程共享也是安全的。
+ */
+public final class SDESKey {
+    /** 密钥空间大小（10-bit） */
+    public static final int KEY_COUNT = 1 << 10;
+
+    // 打包的子密钥表：高 8 位为 k1，低 8 位为 k2
+    private static final int[] SUBKEYS = new int[KEY_COUNT];
+    private static final SDESKey[] KEYS = new SDESKey[KEY_COUNT];
+
+    static {
+        for (int k = 0; k < KEY_COUNT; ++k) {
+            SUBKEYS[k] = SDES.generateSubKeys(k);
+            KEYS[k] = new SDESKey(k, SUBKEYS[k] >>> 8, SUBKEYS[k] & 0xFF);
+        }
+    }
+
+    private final int key10;
+    private final int k1;
+    private final int k2;
+
+    private SDESKey(int key10, int k1, int k2) {
+        this.key10 = key10;
+        this.k1 = k1;
+        this.k2 = k2;
+    }
+
+    /**
+     * 取得 10-bit 密钥对应的实例
+     * @param key10 0..1023
+     */
+    public static SDESKey of(int key10) {
+        if ((key10 & ~0x3FF) != 0)
+            throw new IllegalArgumentException("密钥必须在 0..1023 范围内");
+        return KEYS[key10];
+    }
+
+    /**
+     * 由 10 位二进制字符串取得实例（如 "1010000010"）
+     */
+    public static SDESKey of(String key10) {
+        return KEYS[SDES.parseBits(key10, 10, "密钥必须为10位二进制字符串")];
+    }
+
+    /**
+     * 查表取得打包的子密钥（高 8 位 k1，低 8 位 k2），不做范围检查
+     */
+    static int subKeys(int key10) {
+        return SUBKEYS[key10];
+    }
+
+    public int key10() { return key10; }
+    public int k1() { return k1; }
+    public int k2() { return k2; }
+
+    /** 加密单个 8-bit 分组 */
+    public int encrypt(int block) {
+        return SDES.crypt(block, k1, k2);
+    }
+
+    /** 解密单个 8-bit 分组 */
+    public int decrypt(int block) {
+        return SDES.crypt(block, k2, k1);
+    }
+
+    /** 批量加密，in 与 out 可以是同一数组 */
+    public void encrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        checkRange(in, off, len, out, outOff);
+        for (int i = 0; i < len; ++i) {
+            out[outOff + i] = (byte) SDES.crypt(in[off + i], k1, k2);
+        }
+    }
+
+    /** 批量解密，in 与 out 可以是同一数组 */
+    public void decrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        checkRange(in, off, len, out, outOff);
+        for (int i = 0; i < len; ++i) {
+            out[outOff + i] = (byte) SDES.crypt(in[off + i], k2, k1);
+        }
+    }
+
+    /** 10 位二进制字符串形式 */
+    public String toBits() {
+        return SDES.byteTo8Bits(key10 >>> 2) + ((key10 >>> 1) & 1) + (key10 & 1);
+    }
+
+    @Override
+    public String toString() {
+        return toBits();
+    }
+
+    static void checkRange(byte[] in, int off, int len, byte[] out, int outOff) {
+        if (off < 0 || len < 0 || outOff < 0 || off + len > in.length || outOff + len > out.length)
+            throw new IndexOutOfBoundsException("数组范围越界");
+    }
+}
@@ -0,0 +1,396 @@
+/**
+ * SDESMetrics.java
+ * 热路径指标：分组数、批量吞吐量与耗时、密钥扩展与建表耗时、密钥搜索速率、并行扫描各线程的工作量
+ *
+ * 记录只做 LongAdder / 原子累加（每个线程的扫描计数首次使用时分配一次），不产生其他对象；
+ * 分组数只在引擎（SDESEngine 的各实现）中记录：单分组接口调用 block，批量接口调用 bulk，
+ * SDES 的静态方法委托给默认引擎，因此同一操作无论经由哪条调用路径都只计一次。
+ * 各线程的扫描计数在登记新线程和读取时清理：已结束线程的计数并入 retired，不再单独列出，
+ * 因此短命的线程池线程不会让列表无限增长。
+ * 耗时按对数分桶（2 的幂）做直方图，分位数取桶上界。
+ * 可用 -Dsdes.metrics=false 关闭，此时 ENABLED 为常量 false，记录代码被 JIT 整体消除。
+ *
+ * 读取：JMX（SDESMetricsMBean，由调用方注册），或 writeJson / startDump 输出 JSON 文本。
+ */
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SDESMetrics implements SDESMetricsMBean {
+    /** 开关指标记录的系统属性名 */
+    public static final String METRICS_PROPERTY = "sdes.metrics";
+
+    /** 是否记录指标（默认开启） */
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(METRICS_PROPERTY));
+
+    private static final SDESMetrics INSTANCE = new SDESMetrics();
+
+    private final LongAdder encryptedBlocks = new LongAdder();
+    private final LongAdder decryptedBlocks = new LongAdder();
+    private final LongAdder bulkBytes = new LongAdder();
+    private final Histogram bulk = new Histogram();
+    private final LongAdder keyScheduleCalls = new LongAdder();
+    private final LongAdder keyScheduleNanos = new LongAdder();
+    private volatile long tableBuildNanos;
+    private final LongAdder keysSearched = new LongAdder();
+    private final Histogram search = new Histogram();
+    private final List<ScanCell> scanCells = new CopyOnWriteArrayList<>();
+    private final LongAdder retiredScanKeys = new LongAdder(); // 已结束线程的扫描计数
+    private final ThreadLocal<ScanCell> scanCell = ThreadLocal.withInitial(() -> {
+        ScanCell c = new ScanCell(Thread.currentThread());
+        pruneScanCells();
+        scanCells.add(c);
+        return c;
+    });
+    private volatile long resetAt = System.nanoTime();
+
+    private SDESMetrics() {
+    }
+
+    /** 全局实例 */
+    public static SDESMetrics get() {
+        return INSTANCE;
+    }
+
+    // ---------- 记录（调用方先判断 ENABLED） ----------
+
+    /** 计时起点；关闭时返回 0，不读时钟 */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /** 单个分组 */
+    public static void block(boolean encrypt) {
+        if (!ENABLED) return;
+        (encrypt ? INSTANCE.encryptedBlocks : INSTANCE.decryptedBlocks).increment();
+    }
+
+    /** 一次批量加解密：len 字节，t0 为 start() 的返回值 */
+    public static void bulk(boolean encrypt, int len, long t0) {
+        if (!ENABLED) return;
+        long nanos = System.nanoTime() - t0;
+        (encrypt ? INSTANCE.encryptedBlocks : INSTANCE.decryptedBlocks).add(len);
+        INSTANCE.bulkBytes.add(len);
+        INSTANCE.bulk.record(nanos);
+    }
+
+    /** 一次子密钥扩展 */
+    public static void keySchedule(long t0) {
+        if (!ENABLED) return;
+        INSTANCE.keyScheduleNanos.add(System.nanoTime() - t0);
+        INSTANCE.keyScheduleCalls.increment();
+    }
+
+    /** 查表引擎建表完成 */
+    static void tableBuilt(long nanos) {
+        INSTANCE.tableBuildNanos = nanos;
+    }
+
+    /** 一次完整的密钥搜索：覆盖 keys 个密钥（或密钥组合） */
+    public static void search(long keys, long t0) {
+        if (!ENABLED) return;
+        INSTANCE.keysSearched.add(keys);
+        INSTANCE.search.record(System.nanoTime() - t0);
+    }
+
+    /** 当前线程在并行扫描中检验了 keys 个密钥，用于统计各线程的工作分布 */
+    public static void scanWork(long keys) {
+        if (!ENABLED) return;
+        INSTANCE.scanCell.get().add(keys);
+    }
+
+    // ---------- 读取 ----------
+
+    @Override
+    public long getUptimeMillis() {
+        return (System.nanoTime() - resetAt) / 1_000_000;
+    }
+
+    @Override
+    public long getEncryptedBlocks() {
+        return encryptedBlocks.sum();
+    }
+
+    @Override
+    public long getDecryptedBlocks() {
+        return decryptedBlocks.sum();
+    }
+
+    @Override
+    public long getBulkCalls() {
+        return bulk.count();
+    }
+
+    @Override
+    public long getBulkNanos() {
+        return bulk.sum();
+    }
+
+    @Override
+    public double getBulkBytesPerSecond() {
+        return rate(bulkBytes.sum(), bulk.sum());
+    }
+
+    @Override
+    public long getBulkLatencyP50Nanos() {
+        return bulk.percentile(0.5);
+    }
+
+    @Override
+    public long getBulkLatencyP99Nanos() {
+        return bulk.percentile(0.99);
+    }
+
+    @Override
+    public long getKeyScheduleCalls() {
+        return keyScheduleCalls.sum();
+    }
+
+    @Override
+    public long getKeyScheduleNanos() {
+        return keyScheduleNanos.sum();
+    }
+
+    @Override
+    public long getTableBuildNanos() {
+        return tableBuildNanos;
+    }
+
+    @Override
+    public long getSearches() {
+        return search.count();
+    }
+
+    @Override
+    public long getKeysSearched() {
+        return keysSearched.sum();
+    }
+
+    @Override
+    public double getKeysPerSecond() {
+        return rate(keysSearched.sum(), search.sum());
+    }
+
+    @Override
+    public long getSearchLatencyP50Nanos() {
+        return search.percentile(0.5);
+    }
+
+    @Override
+    public long getSearchLatencyP99Nanos() {
+        return search.percentile(0.99);
+    }
+
+    @Override
+    public int getScanThreads() {
+        pruneScanCells();
+        int n = 0;
+        for (ScanCell c : scanCells) if (c.keys.get() > 0) n++;
+        return n;
+    }
+
+    @Override
+    public double getScanImbalance() {
+        pruneScanCells();
+        long max = 0, total = 0;
+        int n = 0;
+        for (ScanCell c : scanCells) {
+            long k = c.keys.get();
+            if (k == 0) continue;
+            n++;
+            total += k;
+            max = Math.max(max, k);
+        }
+        return n == 0 ? 0 : max * (double) n / total;
+    }
+
+    @Override
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(1024);
+        try {
+            writeJson(sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder 不会抛出
+        }
+        return sb.toString();
+    }
+
+    /** 以 JSON 形式写出全部指标 */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"enabled\": ").append(String.valueOf(ENABLED))
+                .append(", \"uptime_ms\": ").append(String.valueOf(getUptimeMillis()));
+        out.append(",\n \"blocks\": {\"encrypted\": ").append(String.valueOf(getEncryptedBlocks()))
+                .append(", \"decrypted\": ").append(String.valueOf(getDecryptedBlocks())).append('}');
+        out.append(",\n \"bulk\": {\"calls\": ").append(String.valueOf(bulk.count()))
+                .append(", \"bytes\": ").append(String.valueOf(bulkBytes.sum()))
+                .append(", \"bytes_per_sec\": ").append(String.format("%.0f", getBulkBytesPerSecond()));
+        bulk.writeLatency(out);
+        out.append("}");
+        out.append(",\n \"time_ns\": {\"key_schedule\": ").append(String.valueOf(getKeyScheduleNanos()))
+                .append(", \"key_schedule_calls\": ").append(String.valueOf(getKeyScheduleCalls()))
+                .append(", \"table_build\": ").append(String.valueOf(tableBuildNanos)).append('}');
+        out.append(",\n \"search\": {\"count\": ").append(String.valueOf(search.count()))
+                .append(", \"keys\": ").append(String.valueOf(getKeysSearched()))
+                .append(", \"keys_per_sec\": ").append(String.format("%.0f", getKeysPerSecond()));
+        search.writeLatency(out);
+        out.append("}");
+        out.append(",\n \"scan\": {\"imbalance\": ").append(String.format("%.3f", getScanImbalance()))
+                .append(", \"retired_keys\": ").append(String.valueOf(retiredScanKeys.sum()))
+                .append(", \"threads\": [");
+        boolean first = true;
+        for (ScanCell c : scanCells) {
+            long k = c.keys.get();
+            if (k == 0) continue;
+            out.append(first ? "" : ", ").append("{\"name\": \"").append(escape(c.name))
+                    .append("\", \"keys\": ").append(String.valueOf(k)).append('}');
+            first = false;
+        }
+        out.append("]}}\n");
+    }
+
+    @Override
+    public void reset() {
+        encryptedBlocks.reset();
+        decryptedBlocks.reset();
+        bulkBytes.reset();
+        bulk.reset();
+        keyScheduleCalls.reset();
+        keyScheduleNanos.reset();
+        keysSearched.reset();
+        search.reset();
+        for (ScanCell c : scanCells) c.keys.set(0);
+        retiredScanKeys.reset();
+        resetAt = System.nanoTime();
+    }
+
+    /**
+     * 每隔 periodMillis 毫秒把 JSON 写到 out（在一个守护线程上）
+     * @return 关闭后停止输出
+     */
+    public static Closeable startDump(Appendable out, long periodMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("输出间隔必须为正数");
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sdes-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(() -> {
+            try {
+                synchronized (out) {
+                    INSTANCE.writeJson(out);
+                    if (out instanceof Flushable) ((Flushable) out).flush();
+                }
+            } catch (IOException e) {
+                timer.shutdown();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return timer::shutdownNow;
+    }
+
+    // ---------- 内部实现 ----------
+
+    // 移除所属线程已结束的扫描计数，计数并入 retiredScanKeys；线程结束后不会再写入，读到的是最终值
+    private void pruneScanCells() {
+        synchronized (scanCells) {
+            for (ScanCell c : scanCells) {
+                if (!c.alive() && scanCells.remove(c)) retiredScanKeys.add(c.keys.get());
+            }
+        }
+    }
+
+    private static double rate(long amount, long nanos) {
+        return nanos > 0 ? amount * 1e9 / nanos : 0;
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    // 单个线程的扫描计数，只由所属线程累加（reset 会并发清零，因此用原子加而不是读后写）；
+    // 弱引用所属线程，不阻止其回收
+    private static final class ScanCell {
+        final String name;
+        final WeakReference<Thread> owner;
+        final AtomicLong keys = new AtomicLong();
+
+        ScanCell(Thread owner) {
+            this.name = owner.getName();
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean alive() {
+            Thread t = owner.get();
+            return t != null && t.isAlive();
+        }
+
+        void add(long n) {
+            keys.addAndGet(n);
+        }
+    }
+
+    // 对数分桶直方图：桶 b 统计 [2^b, 2^(b+1)) 纳秒
+    static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int b = 0; b < buckets.length; ++b) buckets[b] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+            count.increment();
+            sum.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long sum() {
+            return sum.sum();
+        }
+
+        // 分位数的上界估计（所在桶的上界，不超过最大值）
+        long percentile(double q) {
+            long[] snapshot = new long[buckets.length];
+            long total = 0;
+            for (int b = 0; b < buckets.length; ++b) total += (snapshot[b] = buckets[b].sum());
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int b = 0; b < snapshot.length; ++b) {
+                seen += snapshot[b];
+                if (seen >= rank) return Math.min(max.get(), b == 63 ? Long.MAX_VALUE : (2L << b) - 1);
+            }
+            return max.get();
+        }
+
+        void writeLatency(Appendable out) throws IOException {
+            out.append(", \"nanos\": ").append(String.valueOf(sum()))
+                    .append(", \"p50_ns\": ").append(String.valueOf(percentile(0.5)))
+                    .append(", \"p99_ns\": ").append(String.valueOf(percentile(0.99)))
+                    .append(", \"max_ns\": ").append(String.valueOf(max.get()));
+        }
+
+        void reset() {
+            for (LongAdder b : buckets) b.reset();
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * SDESMetricsMBean.java
+ * SDESMetrics 的 JMX 管理接口（标准 MBean：属性即 getter）
+ *
+ * 本接口不依赖 javax.management，注册由使用方完成（见 sdes-tools 中的 SDESJmx）。
+ * 时间单位均为纳秒，速率均按累计工作时间（而非墙钟时间）计算。
+ */
+public interface SDESMetricsMBean {
+    /** 自启动或上次 reset 以来的毫秒数 */
+    long getUptimeMillis();
+
+    /** 已加密的分组数（单分组接口与批量接口合计） */
+    long getEncryptedBlocks();
+
+    /** 已解密的分组数 */
+    long getDecryptedBlocks();
+
+    /** 批量加解密的调用次数 */
+    long getBulkCalls();
+
+    /** 批量加解密累计耗时（纳秒） */
+    long getBulkNanos();
+
+    /** 批量加解密的吞吐量（字节/秒） */
+    double getBulkBytesPerSecond();
+
+    long getBulkLatencyP50Nanos();
+
+    long getBulkLatencyP99Nanos();
+
+    /** 子密钥扩展的次数 */
+    long getKeyScheduleCalls();
+
+    /** 子密钥扩展累计耗时 */
+    long getKeyScheduleNanos();
+
+    /** 查表引擎建表耗时（未建表时为 0） */
+    long getTableBuildNanos();
+
+    /** 已完成的密钥搜索次数（暴力破解、密钥恢复、中间相遇攻击等） */
+    long getSearches();
+
+    /** 搜索覆盖的密钥数 */
+    long getKeysSearched();
+
+    /** 每秒检验的密钥数 */
+    double getKeysPerSecond();
+
+    long getSearchLatencyP50Nanos();
+
+    long getSearchLatencyP99Nanos();
+
+    /** 参与过并行扫描的线程数 */
+    int getScanThreads();
+
+    /** 并行扫描中工作量最大的线程与平均值之比（1.0 表示完全均衡） */
+    double getScanImbalance();
+
+    /** 全部指标的 JSON 文本 */
+    String toJson();
+
+    /** 全部计数清零 */
+    void reset();
+}
@@ -0,0 +1,32 @@
+/**
+ * SDESMode.java
+ * 分组工作模式接口（ECB / CBC / CTR / OFB，见 SDESModes）
+ *
+ * 一条消息可以分成若干段依次处理：每段传入该段在消息中的起始偏移 position
+ * 和"链接字节" chain（第一段为 IV），返回值作为下一段的 chain。
+ * 对可随机访问的模式（randomAccess 为 true），任一段的 chain 等于该段之前的一个输入字节
+ * （第一段为 IV），因此可以把消息切块并行处理。
+ */
+public interface SDESMode {
+    /** 模式名称 */
+    String name();
+
+    /**
+     * 该方向是否可随机访问（可分块并行）
+     * @param encrypt true 表示加密方向
+     */
+    boolean randomAccess(boolean encrypt);
+
+    /**
+     * 加密 in[off..off+len) 写入 out[outOff..)
+     * @param position 本段在整条消息中的起始偏移
+     * @param chain    本段之前的链接字节，第一段为 IV
+     * @return 下一段的链接字节
+     */
+    int encrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                byte[] in, int off, int len, byte[] out, int outOff);
+
+    /** 解密，参数含义同 encrypt */
+    int decrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                byte[] in, int off, int len, byte[] out, int outOff);
+}
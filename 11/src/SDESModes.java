@@ -0,0 +1,261 @@
+/**
+ * SDESModes.java
+ * 工作模式实现与分块并行驱动
+ *
+ * 分组长度为 8 bit，IV 也是 8 bit（0..255）：
+ *   ECB：C[i] = E(P[i])
+ *   CBC：C[i] = E(P[i] ^ C[i-1])，C[-1] = IV
+ *   CTR：C[i] = P[i] ^ E((IV + i) mod 256)
+ *   OFB：S[i] = E(S[i-1])，S[-1] = IV；C[i] = P[i] ^ S[i]
+ *
+ * 可随机访问的方向（ECB 双向、CTR 双向、CBC 解密）在 ForkJoinPool 上分块并行；
+ * CBC 加密与 OFB 只能顺序处理，走单线程的紧凑循环。
+ * CBC / CTR / OFB 每次调用（并行时每个分块）只向引擎取一次该密钥的 256 字节结果表（SDESEngine.table），
+ * 逐字节只做查表与异或，指标也按整块记录一次。
+ */
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class SDESModes {
+    /** 并行时每块的最小字节数 */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    private SDESModes() {
+    }
+
+    public static final SDESMode ECB = new SDESMode() {
+        @Override
+        public String name() {
+            return "ECB";
+        }
+
+        @Override
+        public boolean randomAccess(boolean encrypt) {
+            return true;
+        }
+
+        @Override
+        public int encrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            engine.encrypt(in, off, len, out, outOff, key10);
+            return len > 0 ? in[off + len - 1] & 0xFF : chain;
+        }
+
+        @Override
+        public int decrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            engine.decrypt(in, off, len, out, outOff, key10);
+            return len > 0 ? in[off + len - 1] & 0xFF : chain;
+        }
+    };
+
+    public static final SDESMode CBC = new SDESMode() {
+        @Override
+        public String name() {
+            return "CBC";
+        }
+
+        @Override
+        public boolean randomAccess(boolean encrypt) {
+            return !encrypt;
+        }
+
+        @Override
+        public int encrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            SDESKey.checkRange(in, off, len, out, outOff);
+            long t0 = SDESMetrics.start();
+            byte[] table = engine.table(true, key10);
+            int prev = chain & 0xFF;
+            for (int i = 0; i < len; ++i) {
+                prev = table[(in[off + i] ^ prev) & 0xFF] & 0xFF;
+                out[outOff + i] = (byte) prev;
+            }
+            SDESMetrics.bulk(true, len, t0);
+            return prev;
+        }
+
+        @Override
+        public int decrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            SDESKey.checkRange(in, off, len, out, outOff);
+            long t0 = SDESMetrics.start();
+            byte[] table = engine.table(false, key10);
+            int prev = chain & 0xFF;
+            for (int i = 0; i < len; ++i) {
+                int c = in[off + i] & 0xFF; // 先取出密文，允许 in 与 out 为同一数组
+                out[outOff + i] = (byte) (table[c] ^ prev);
+                prev = c;
+            }
+            SDESMetrics.bulk(false, len, t0);
+            return prev;
+        }
+    };
+
+    public static final SDESMode CTR = new SDESMode() {
+        @Override
+        public String name() {
+            return "CTR";
+        }
+
+        @Override
+        public boolean randomAccess(boolean encrypt) {
+            return true;
+        }
+
+        @Override
+        public int encrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            SDESKey.checkRange(in, off, len, out, outOff);
+            long t0 = SDESMetrics.start();
+            // 计数器按 256 循环，密钥流也以 256 字节为周期：先整段算出，再逐字节异或
+            byte[] table = engine.table(true, key10);
+            int counter = (int) ((iv + position) & 0xFF);
+            byte[] stream = new byte[256];
+            for (int j = 0; j < 256; ++j) stream[j] = table[(counter + j) & 0xFF];
+            for (int i = 0; i < len; ++i) {
+                out[outOff + i] = (byte) (in[off + i] ^ stream[i & 0xFF]);
+            }
+            SDESMetrics.bulk(true, len, t0);
+            return len > 0 ? in[off + len - 1] & 0xFF : chain;
+        }
+
+        @Override
+        public int decrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            // CTR 加解密相同
+            return encrypt(engine, key10, iv, position, chain, in, off, len, out, outOff);
+        }
+    };
+
+    public static final SDESMode OFB = new SDESMode() {
+        @Override
+        public String name() {
+            return "OFB";
+        }
+
+        @Override
+        public boolean randomAccess(boolean encrypt) {
+            return false;
+        }
+
+        // chain 为上一个密钥流字节 S[i-1]
+        @Override
+        public int encrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            SDESKey.checkRange(in, off, len, out, outOff);
+            long t0 = SDESMetrics.start();
+            byte[] table = engine.table(true, key10);
+            int s = chain & 0xFF;
+            for (int i = 0; i < len; ++i) {
+                s = table[s] & 0xFF;
+                out[outOff + i] = (byte) (in[off + i] ^ s);
+            }
+            SDESMetrics.bulk(true, len, t0);
+            return s;
+        }
+
+        @Override
+        public int decrypt(SDESEngine engine, int key10, int iv, long position, int chain,
+                           byte[] in, int off, int len, byte[] out, int outOff) {
+            // OFB 加解密相同
+            return encrypt(engine, key10, iv, position, chain, in, off, len, out, outOff);
+        }
+    };
+
+    /**
+     * 按名称取得模式（不区分大小写）
+     * @throws IllegalArgumentException 名称未知
+     */
+    public static SDESMode byName(String name) {
+        for (SDESMode m : new SDESMode[] { ECB, CBC, CTR, OFB }) {
+            if (m.name().equalsIgnoreCase(name)) return m;
+        }
+        throw new IllegalArgumentException("未知的工作模式：" + name);
+    }
+
+    /**
+     * 加密整条消息，in 与 out 可以是同一数组；可随机访问时在公共 ForkJoinPool 上并行
+     * @param iv 0..255
+     */
+    public static void encrypt(SDESMode mode, SDESKey key, int iv, byte[] in, int off, int len,
+                               byte[] out, int outOff) {
+        run(mode, true, SDESEngines.defaultEngine(), key, iv, in, off, len, out, outOff, ForkJoinPool.commonPool());
+    }
+
+    /** 解密整条消息，参数含义同 encrypt */
+    public static void decrypt(SDESMode mode, SDESKey key, int iv, byte[] in, int off, int len,
+                               byte[] out, int outOff) {
+        run(mode, false, SDESEngines.defaultEngine(), key, iv, in, off, len, out, outOff, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 完整参数版本
+     * @param pool 并行使用的线程池；为 null 时总是顺序处理
+     */
+    public static void run(SDESMode mode, boolean encrypt, SDESEngine engine, SDESKey key, int iv,
+                           byte[] in, int off, int len, byte[] out, int outOff, ForkJoinPool pool) {
+        if (mode == null || engine == null || key == null) throw new IllegalArgumentException("模式、引擎和密钥不能为空");
+        if ((iv & ~0xFF) != 0) throw new IllegalArgumentException("IV 必须在 0..255 范围内");
+        SDESKey.checkRange(in, off, len, out, outOff);
+        if (pool == null || len <= PARALLEL_THRESHOLD || !mode.randomAccess(encrypt)) {
+            apply(mode, encrypt, engine, key.key10(), iv, 0, iv, in, off, len, out, outOff);
+        } else {
+            pool.invoke(new Chunk(mode, encrypt, engine, key.key10(), iv, 0, iv, in, off, len, out, outOff));
+        }
+    }
+
+    private static int apply(SDESMode mode, boolean encrypt, SDESEngine engine, int key10, int iv, long position,
+                             int chain, byte[] in, int off, int len, byte[] out, int outOff) {
+        return encrypt
+                ? mode.encrypt(engine, key10, iv, position, chain, in, off, len, out, outOff)
+                : mode.decrypt(engine, key10, iv, position, chain, in, off, len, out, outOff);
+    }
+
+    // 二分切块；右半段的 chain 在任何子任务写入之前读取，所以原地处理也是安全的
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SDESMode mode;
+        private final boolean encrypt;
+        private final SDESEngine engine;
+        private final int key10;
+        private final int iv;
+        private final long position;
+        private final int chain;
+        private final byte[] in;
+        private final int off;
+        private final int len;
+        private final byte[] out;
+        private final int outOff;
+
+        Chunk(SDESMode mode, boolean encrypt, SDESEngine engine, int key10, int iv, long position, int chain,
+              byte[] in, int off, int len, byte[] out, int outOff) {
+            this.mode = mode;
+            this.encrypt = encrypt;
+            this.engine = engine;
+            this.key10 = key10;
+            this.iv = iv;
+            this.position = position;
+            this.chain = chain;
+            this.in = in;
+            this.off = off;
+            this.len = len;
+            this.out = out;
+            this.outOff = outOff;
+        }
+
+        @Override
+        protected void compute() {
+            if (len <= PARALLEL_THRESHOLD) {
+                apply(mode, encrypt, engine, key10, iv, position, chain, in, off, len, out, outOff);
+                return;
+            }
+            int half = len >>> 1;
+            int rightChain = in[off + half - 1] & 0xFF;
+            invokeAll(new Chunk(mode, encrypt, engine, key10, iv, position, chain, in, off, half, out, outOff),
+                    new Chunk(mode, encrypt, engine, key10, iv, position + half, rightChain,
+                            in, off + half, len - half, out, outOff + half));
+        }
+    }
+}
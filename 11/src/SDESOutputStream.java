@@ -0,0 +1,76 @@
+/**
+ * SDESOutputStream.java
+ * 写入时逐字节做 S-DES 变换（ECB）的输出流
+ *
+ * 使用固定大小的缓冲区，内存占用与数据量无关；不修改调用方传入的数组。
+ */
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class SDESOutputStream extends FilterOutputStream {
+    /** 默认缓冲区大小 */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final SDESEngine engine;
+    private final int key10;
+    private final boolean encrypt;
+    private final byte[] buf;
+    private int count;
+
+    /**
+     * @param out     下游输出流
+     * @param key     密钥
+     * @param encrypt true 加密，false 解密
+     */
+    public SDESOutputStream(OutputStream out, SDESKey key, boolean encrypt) {
+        this(out, key, encrypt, SDESEngines.defaultEngine(), DEFAULT_BUFFER_SIZE);
+    }
+
+    public SDESOutputStream(OutputStream out, SDESKey key, boolean encrypt, SDESEngine engine, int bufferSize) {
+        super(out);
+        if (key == null || engine == null) throw new IllegalArgumentException("密钥和引擎不能为空");
+        if (bufferSize <= 0) throw new IllegalArgumentException("缓冲区大小必须为正数");
+        this.engine = engine;
+        this.key10 = key.key10();
+        this.encrypt = encrypt;
+        this.buf = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buf.length) flushBuffer();
+        buf[count++] = (byte) (encrypt ? engine.encrypt(b, key10) : engine.decrypt(b, key10));
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > b.length) throw new IndexOutOfBoundsException("数组范围越界");
+        while (len > 0) {
+            if (count == buf.length) flushBuffer();
+            int n = Math.min(len, buf.length - count);
+            transform(b, off, n, buf, count);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    private void transform(byte[] in, int off, int len, byte[] dst, int dstOff) {
+        if (encrypt) engine.encrypt(in, off, len, dst, dstOff, key10);
+        else engine.decrypt(in, off, len, dst, dstOff, key10);
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * SDESBenchmark.java
+ * S-DES 各代码路径的基准测试
+ *
+ * 每项先预热若干轮，再测量若干轮（每轮运行到给定时长为止），输出：
+ *   ns/op、ops/s、吞吐量（批量项）以及每次操作分配的字节数（B/op）。
+ * 分配量取自 com.sun.management.ThreadMXBean 的线程分配计数，相当于 GC 分析器中的 alloc.rate.norm，
+ * 可用于跟踪回归，也可把新引擎与原有的字符串接口对比。
+ *
+ * 覆盖的路径：
+ *   subkeys    子密钥生成（字符串接口 / int 接口 / SDESKey 查表）
+ *   block      单分组加解密（字符串接口 / 各引擎 int 接口）
+ *   bulk       批量消息加密，1 KB 到 1 GB（默认最大 16 MB，--max-size 调整）；
+ *              string 项即逐分组调用 encryptBlock 的原始路径，可与各引擎（含可用时的 vector）直接比较
+ *   scan       整个 1024 密钥空间扫描（字符串逐密钥 / int 逐密钥 / 多密钥批量 / 位切片 / 倒排索引）
+ *   closed     封闭测试（字符串 + HashMap / int + 计数数组）
+ *
+ * 用法：java -jar sdes-tools.jar bench [--filter 名称片段] [--max-size 字节数] [--warmup N] [--iterations N] [--time 毫秒]
+ */
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public final class SDESBenchmark {
+    /** 批量测试的消息大小：1 KB .. 1 GB */
+    static final long[] BULK_SIZES = { 1L << 10, 64L << 10, 1L << 20, 16L << 20, 256L << 20, 1L << 30 };
+
+    private static final int KEY = 0b1010000010;
+    private static final String KEY_BITS = "1010000010";
+
+    // 被测操作：返回值用于防止 JIT 消除无用计算
+    private interface Op {
+        int run();
+    }
+
+    private final PrintStream out;
+    private final String filter;
+    private final int warmup;
+    private final int iterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threads;
+    private int sink;
+
+    private SDESBenchmark(PrintStream out, String filter, int warmup, int iterations, long iterationMillis) {
+        this.out = out;
+        this.filter = filter;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean t = null;
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            t = (com.sun.management.ThreadMXBean) mx;
+            if (t.isThreadAllocatedMemorySupported()) t.setThreadAllocatedMemoryEnabled(true);
+            else t = null;
+        }
+        this.threads = t;
+    }
+
+    public static void main(String[] args) {
+        run(null, 16L << 20, 3, 5, 200, System.out);
+    }
+
+    /**
+     * 运行基准
+     * @param filter          只运行名称中包含该片段的项目（null 表示全部）
+     * @param maxSize         批量测试的最大消息字节数
+     * @param warmup          预热轮数
+     * @param iterations      测量轮数
+     * @param iterationMillis 每轮时长（毫秒）
+     */
+    public static void run(String filter, long maxSize, int warmup, int iterations, long iterationMillis,
+                           PrintStream out) {
+        SDESBenchmark b = new SDESBenchmark(out, filter, warmup, iterations, iterationMillis);
+        out.println(String.format("%-34s %14s %14s %14s %12s", "项目", "ns/op", "ops/s", "吞吐量", "B/op"));
+        b.subKeys();
+        b.blocks();
+        b.bulk(maxSize);
+        b.scans();
+        b.closedTests();
+        if (b.sink == 42) out.println();
+    }
+
+    // ---------- 各组基准 ----------
+
+    private void subKeys() {
+        measure("subkeys.string", 0, () -> SDES.generateSubKeys(KEY_BITS)[0].length());
+        int[] k = { 0 };
+        measure("subkeys.int", 0, () -> SDES.generateSubKeys(k[0]++ & 0x3FF));
+        measure("subkeys.SDESKey", 0, () -> SDESKey.of(k[0]++ & 0x3FF).k1());
+    }
+
+    private void blocks() {
+        String[] plains = new String[256];
+        for (int i = 0; i < 256; ++i) plains[i] = SDES.byteTo8Bits(i);
+        int[] p = { 0 };
+        measure("block.encrypt.string", 0, () -> SDES.encryptBlock(plains[p[0]++ & 0xFF], KEY_BITS).length());
+        measure("block.decrypt.string", 0, () -> SDES.decryptBlock(plains[p[0]++ & 0xFF], KEY_BITS).length());
+        for (SDESEngine engine : SDESEngines.all()) {
+            measure("block.encrypt." + engine.name(), 0, () -> engine.encrypt(p[0]++ & 0xFF, KEY));
+            measure("block.decrypt." + engine.name(), 0, () -> engine.decrypt(p[0]++ & 0xFF, KEY));
+        }
+    }
+
+    private void bulk(long maxSize) {
+        for (long size : BULK_SIZES) {
+            if (size > maxSize) break;
+            if (!anyMatches("bulk.", size)) continue;
+            byte[] data;
+            try {
+                data = new byte[(int) Math.min(size, Integer.MAX_VALUE - 8)];
+            } catch (OutOfMemoryError e) {
+                out.println("bulk " + sizeName(size) + "：内存不足，跳过（请增大 -Xmx）");
+                continue;
+            }
+            new Random(size).nextBytes(data);
+            final byte[] msg = data;
+            if (size <= (1L << 20)) {
+                // 原有 ASCII 模式的做法：逐字节转为 '0'/'1' 字符串再拼接
+                measure("bulk.string." + sizeName(size), msg.length, () -> {
+                    StringBuilder sb = new StringBuilder();
+                    for (byte b : msg) sb.append(SDES.encryptBlock(SDES.byteTo8Bits(b), KEY_BITS));
+                    return sb.length();
+                });
+            }
+            for (SDESEngine engine : SDESEngines.all()) {
+                measure("bulk." + engine.name() + "." + sizeName(size), msg.length, () -> {
+                    engine.encrypt(msg, 0, msg.length, msg, 0, KEY);
+                    return msg[0];
+                });
+            }
+        }
+    }
+
+    private void scans() {
+        byte[] plain = { 0x48, 0x69, 0x21 };
+        byte[] cipher = new byte[plain.length];
+        SDES.encrypt(plain, 0, plain.length, cipher, 0, KEY);
+        String[] plainBits = new String[plain.length];
+        String[] cipherBits = new String[plain.length];
+        for (int i = 0; i < plain.length; ++i) {
+            plainBits[i] = SDES.byteTo8Bits(plain[i]);
+            cipherBits[i] = SDES.byteTo8Bits(cipher[i]);
+        }
+        long[] bits = new long[KeyRecovery.BITSET_WORDS];
+        int[] allKeys = SDESBatch.keyRange(0, SDESKey.KEY_COUNT);
+        int[] matches = new int[1];
+
+        measure("scan.string", 0, () -> {
+            int found = 0;
+            for (int k = 0; k < SDESKey.KEY_COUNT; ++k) {
+                String key = String.format("%10s", Integer.toBinaryString(k)).replace(' ', '0');
+                boolean ok = true;
+                for (int i = 0; i < plainBits.length && ok; ++i) {
+                    ok = SDES.encryptBlock(plainBits[i], key).equals(cipherBits[i]);
+                }
+                if (ok) found++;
+            }
+            return found;
+        });
+        measure("scan.int", 0, () -> {
+            int found = 0;
+            for (int k = 0; k < SDESKey.KEY_COUNT; ++k) {
+                SDESKey key = SDESKey.of(k);
+                boolean ok = true;
+                for (int i = 0; i < plain.length && ok; ++i) {
+                    ok = key.encrypt(plain[i]) == (cipher[i] & 0xFF);
+                }
+                if (ok) found++;
+            }
+            return found;
+        });
+        measure("scan.batch", 0, () -> {
+            matches[0] = 0;
+            SDESBatch.forEach(plain, 0, plain.length, allKeys, true, (i, k, row, off, len) -> {
+                for (int j = 0; j < len; ++j) if (row[off + j] != cipher[j]) return true;
+                matches[0]++;
+                return true;
+            }, null);
+            return matches[0];
+        });
+        measure("scan.bitsliced", 0, () -> SDESBitslicedEngine.scan(plain, 0, cipher, 0, plain.length, bits));
+        measure("scan.index", 0, () -> KeyRecovery.intersect(plain, 0, cipher, 0, plain.length, bits));
+    }
+
+    private void closedTests() {
+        String plainBits = SDES.byteTo8Bits(0x48);
+        // 与图形界面原来的封闭测试相同：字符串密钥 + HashMap<String, List<String>>
+        measure("closed.string", 0, () -> {
+            Map<String, List<String>> map = new HashMap<>();
+            for (int k = 0; k < SDESKey.KEY_COUNT; ++k) {
+                String key = String.format("%10s", Integer.toBinaryString(k)).replace(' ', '0');
+                String c = SDES.encryptBlock(plainBits, key);
+                map.computeIfAbsent(c, x -> new ArrayList<>()).add(key);
+            }
+            return map.size();
+        });
+        int[] counts = new int[256];
+        measure("closed.int", 0, () -> {
+            java.util.Arrays.fill(counts, 0);
+            for (int k = 0; k < SDESKey.KEY_COUNT; ++k) counts[SDESKey.of(k).encrypt(0x48)]++;
+            int collisions = 0;
+            for (int c : counts) if (c > 1) collisions++;
+            return collisions;
+        });
+    }
+
+    // ---------- 测量 ----------
+
+    private boolean matches(String name) {
+        return filter == null || name.contains(filter);
+    }
+
+    private boolean anyMatches(String prefix, long size) {
+        if (filter == null) return true;
+        if (matches(prefix + "string." + sizeName(size))) return true;
+        for (SDESEngine engine : SDESEngines.all()) {
+            if (matches(prefix + engine.name() + "." + sizeName(size))) return true;
+        }
+        return false;
+    }
+
+    private void measure(String name, long bytesPerOp, Op op) {
+        if (!matches(name)) return;
+        for (int i = 0; i < warmup; ++i) iteration(op);
+        long totalOps = 0;
+        long totalNanos = 0;
+        long allocBefore = allocatedBytes();
+        for (int i = 0; i < iterations; ++i) {
+            long[] r = iteration(op);
+            totalOps += r[0];
+            totalNanos += r[1];
+        }
+        long allocAfter = allocatedBytes();
+        double nsPerOp = (double) totalNanos / totalOps;
+        String throughput = bytesPerOp > 0 ? SDESCli.rate(bytesPerOp * totalOps, totalNanos) : "-";
+        String alloc = allocBefore < 0 ? "n/a"
+                : String.format("%.1f", (double) (allocAfter - allocBefore) / totalOps);
+        out.println(String.format("%-36s %14.1f %14.0f %14s %12s", name, nsPerOp, 1e9 / nsPerOp, throughput, alloc));
+    }
+
+    // 运行一轮：调用次数按 2 的幂增长，直到达到该轮时长；返回 {次数, 纳秒}
+    private long[] iteration(Op op) {
+        long ops = 0;
+        long batch = 1;
+        long t0 = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0; i < batch; ++i) sink += op.run();
+            ops += batch;
+            if (batch < (1 << 20)) batch <<= 1;
+            elapsed = System.nanoTime() - t0;
+        } while (elapsed < iterationNanos);
+        return new long[] { ops, elapsed };
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static String sizeName(long size) {
+        if (size >= (1L << 30)) return (size >> 30) + "GB";
+        if (size >= (1L << 20)) return (size >> 20) + "MB";
+        return (size >> 10) + "KB";
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ * SDESCli.java
+ * 无界面的命令行入口（可在无显示环境的批处理节点上运行）
+ * 只依赖 sdes-core；Main 带参数启动时也会转到这里。
+ *
+ * 用法：
+ *   java -jar sdes-tools.jar encrypt --key 1010000010 --in big.bin --out big.enc [--threads N] [--engine table|computed|bitsliced]
+ *   java -jar sdes-tools.jar decrypt --key 1010000010 --in big.enc --out big.bin [--threads N] [--engine table|computed|bitsliced]
+ *   java -jar sdes-tools.jar analyze [--format json|csv] [--out 文件或目录]
+ *   java -jar sdes-tools.jar mitm --variant double|triple|triple2 --plain 8位块,... --cipher 8位块,... [--max N]
+ *   java -jar sdes-tools.jar cipheronly (--in 文件 | --hex 十六进制密文) [--scorer english|printable|utf8] [--top N] [--prefix 字节数]
+ *   java -jar sdes-tools.jar search --variant single|double|triple|triple2 --plain 8位块,... --cipher 8位块,... [--workers N] [--lease N] [--checkpoint 文件] [--all true]
+ *   java -jar sdes-tools.jar worker --port P [--host 127.0.0.1] [--name 名称]
+ *   java -jar sdes-tools.jar vectors --hex 十六进制分组 [--from 0] [--to 1024] [--mode encrypt|decrypt] [--out 文件]
+ *   java -jar sdes-tools.jar selfcheck
+ *   java -jar sdes-tools.jar bench [--filter 名称片段] [--max-size 字节数] [--warmup N] [--iterations N] [--time 毫秒]
+ *   java -jar sdes-tools.jar serve [--port 9300] [--threads N] [--engine table|computed|bitsliced] [--max-frame 字节数] [--metrics 毫秒]
+ *   java -jar sdes-tools.jar loadgen [--port P] [--op encrypt|decrypt|recover] [--size 字节数] [--connections N] [--depth N] [--warmup 毫秒] [--time 毫秒]
+ *
+ * serve 会把 SDESMetrics 注册为 JMX MBean，指定 --metrics 时还按该间隔把指标 JSON 输出到标准输出；
+ * loadgen 使用内嵌服务时在结束后输出一次指标。
+ */
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public final class SDESCli {
+    private SDESCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * 执行一条命令
+     * @return 进程退出码（0 成功，1 运行失败，2 参数错误）
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length == 0 || "help".equals(args[0]) || "--help".equals(args[0])) {
+            usage(out);
+            return args.length == 0 ? 2 : 0;
+        }
+        String cmd = args[0];
+        Map<String, String> opts;
+        try {
+            opts = parseOptions(args, 1);
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            usage(err);
+            return 2;
+        }
+        try {
+            switch (cmd) {
+                case "encrypt":
+                    return crypt(opts, true, out);
+                case "decrypt":
+                    return crypt(opts, false, out);
+                case "analyze":
+                    return analyze(opts, out);
+                case "mitm":
+                    return mitm(opts, out);
+                case "cipheronly":
+                    return cipherOnly(opts, out);
+                case "vectors":
+                    return vectors(opts, out);
+                case "search":
+                    return search(opts, out);
+                case "worker":
+                    return worker(opts, out);
+                case "selfcheck":
+                    return SDESSelfCheck.run(out) == 0 ? 0 : 1;
+                case "bench":
+                    SDESBenchmark.run(opts.get("filter"), longOption(opts, "max-size", 16L << 20),
+                            intOption(opts, "warmup", 3), intOption(opts, "iterations", 5),
+                            intOption(opts, "time", 200), out);
+                    return 0;
+                case "serve":
+                    return serve(opts, out);
+                case "loadgen":
+                    return loadgen(opts, out);
+                default:
+                    err.println("错误: 未知命令 " + cmd);
+                    usage(err);
+                    return 2;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("错误: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int crypt(Map<String, String> opts, boolean encrypt, PrintStream out) throws IOException {
+        SDESKey key = SDESKey.of(require(opts, "key"));
+        Path in = Paths.get(require(opts, "in"));
+        Path dst = Paths.get(require(opts, "out"));
+        int threads = intOption(opts, "threads", Runtime.getRuntime().availableProcessors());
+        SDESEngine engine = opts.containsKey("engine")
+                ? SDESEngines.byName(opts.get("engine")) : SDESEngines.defaultEngine();
+
+        long t0 = System.nanoTime();
+        long bytes = SDESFileCrypt.process(in, dst, key, encrypt, threads, engine, SDESFileCrypt.DEFAULT_CHUNK_SIZE);
+        long nanos = System.nanoTime() - t0;
+        // 报告实际使用的线程数（小文件分块少时会少于 --threads）
+        int used = SDESFileCrypt.threadCount(bytes, threads, SDESFileCrypt.DEFAULT_CHUNK_SIZE);
+        out.println(String.format("%s完成：%d 字节，线程数 %d，引擎 %s，耗时 %.3f ms，吞吐 %s",
+                encrypt ? "加密" : "解密", bytes, used, engine.name(), nanos / 1e6, rate(bytes, nanos)));
+        return 0;
+    }
+
+    // 全空间封闭测试与等价密钥分析；csv 时 --out 为目录，写出三个文件
+    private static int analyze(Map<String, String> opts, PrintStream out) throws IOException {
+        String format = opts.containsKey("format") ? opts.get("format") : "json";
+        if (!"json".equals(format) && !"csv".equals(format))
+            throw new IllegalArgumentException("参数 --format 只能为 json 或 csv：" + format);
+        ClosedTestAnalysis a = ClosedTestAnalysis.run();
+        String dst = opts.get("out");
+        if ("csv".equals(format)) {
+            Path dir = Paths.get(dst != null ? dst : ".");
+            Files.createDirectories(dir);
+            try (Writer w = Files.newBufferedWriter(dir.resolve("collisions.csv"), StandardCharsets.UTF_8)) {
+                a.writeCollisionCsv(w);
+            }
+            try (Writer w = Files.newBufferedWriter(dir.resolve("histogram.csv"), StandardCharsets.UTF_8)) {
+                a.writeHistogramCsv(w);
+            }
+            try (Writer w = Files.newBufferedWriter(dir.resolve("classes.csv"), StandardCharsets.UTF_8)) {
+                a.writeClassesCsv(w);
+            }
+        } else if (dst != null) {
+            try (Writer w = Files.newBufferedWriter(Paths.get(dst), StandardCharsets.UTF_8)) {
+                a.writeJson(w);
+            }
+        } else {
+            a.writeJson(out);
+        }
+        if (dst != null || "csv".equals(format)) {
+            out.println(String.format("分析完成：耗时 %.3f ms，等价类 %d 个（其中多密钥类 %d 个）",
+                    a.elapsedNanos() / 1e6, a.classCount(), a.equivalenceClasses().length));
+        }
+        return 0;
+    }
+
+    // 双重 / 三重 S-DES 的中间相遇攻击
+    private static int mitm(Map<String, String> opts, PrintStream out) {
+        String variant = require(opts, "variant");
+        byte[] plain = parseBlocks(require(opts, "plain"));
+        byte[] cipher = parseBlocks(require(opts, "cipher"));
+        int max = intOption(opts, "max", 1000);
+        long t0 = System.nanoTime();
+        int[] found;
+        switch (variant) {
+            case "double":
+                found = MeetInTheMiddle.attackDouble(plain, cipher, max);
+                break;
+            case "triple":
+                found = MeetInTheMiddle.attackTriple(plain, cipher, max);
+                break;
+            case "triple2":
+                found = MeetInTheMiddle.attackTriple2(plain, cipher, max);
+                break;
+            default:
+                throw new IllegalArgumentException("参数 --variant 只能为 double、triple 或 triple2：" + variant);
+        }
+        long nanos = System.nanoTime() - t0;
+        out.println(String.format("中间相遇攻击（%s，%d 对明文）：耗时 %.3f ms，候选 %d 个%s",
+                variant, plain.length, nanos / 1e6, found.length, found.length >= max ? "（已达上限）" : ""));
+        for (int i = 0; i < found.length && i < 20; ++i) {
+            int f = found[i];
+            String keys = SDESKey.of(MeetInTheMiddle.key1(f)) + " " + SDESKey.of(MeetInTheMiddle.key2(f));
+            if ("triple".equals(variant)) keys += " " + SDESKey.of(MeetInTheMiddle.key3(f));
+            out.println("  " + keys);
+        }
+        if (found.length > 20) out.println("  ……");
+        return 0;
+    }
+
+    // 唯密文攻击：只读取密文开头的样本
+    private static int cipherOnly(Map<String, String> opts, PrintStream out) throws IOException {
+        PlaintextScorer scorer = PlaintextScorers.byName(opts.containsKey("scorer") ? opts.get("scorer") : "english");
+        int top = intOption(opts, "top", 10);
+        int prefix = intOption(opts, "prefix", CiphertextOnlySearch.DEFAULT_PREFIX);
+        if (prefix <= 0) throw new IllegalArgumentException("参数 --prefix 必须为正数");
+        byte[] sample;
+        if (opts.containsKey("hex")) {
+            sample = SDESCodecs.HEX.decode(opts.get("hex"));
+        } else {
+            try (InputStream in = Files.newInputStream(Paths.get(require(opts, "in")))) {
+                sample = new byte[prefix];
+                int n = 0, r;
+                while (n < sample.length && (r = in.read(sample, n, sample.length - n)) > 0) n += r;
+                sample = Arrays.copyOf(sample, n);
+            }
+        }
+        if (sample.length == 0) throw new IllegalArgumentException("密文为空");
+        long t0 = System.nanoTime();
+        CiphertextOnlySearch.Candidate[] found = CiphertextOnlySearch.search(sample, 0, sample.length, scorer, top,
+                prefix, ForkJoinPool.commonPool());
+        long nanos = System.nanoTime() - t0;
+        out.println(String.format("唯密文攻击（打分器 %s，样本 %d 字节）：耗时 %.3f ms",
+                scorer.name(), Math.min(prefix, sample.length), nanos / 1e6));
+        byte[] preview = new byte[Math.min(48, sample.length)];
+        for (CiphertextOnlySearch.Candidate c : found) {
+            SDES.decrypt(sample, 0, preview.length, preview, 0, c.key10());
+            StringBuilder sb = new StringBuilder();
+            for (byte b : preview) sb.append(b >= 0x20 && b < 0x7F ? (char) b : '.');
+            out.println(String.format("  %s  %10.4f  %s", SDESKey.of(c.key10()), c.score(), sb));
+        }
+        return 0;
+    }
+
+    // 分布式穷举搜索：启动协调者和若干本机工作进程（--workers 0 时只等待外部工作者连接）
+    private static int search(Map<String, String> opts, PrintStream out) throws IOException {
+        KeySpaceSearch job = new KeySpaceSearch(
+                KeySpaceSearch.Variant.byName(opts.containsKey("variant") ? opts.get("variant") : "single"),
+                parseBlocks(require(opts, "plain")), parseBlocks(require(opts, "cipher")));
+        int workers = intOption(opts, "workers", Runtime.getRuntime().availableProcessors());
+        boolean all = Boolean.parseBoolean(opts.get("all"));
+        Path checkpoint = opts.containsKey("checkpoint") ? Paths.get(opts.get("checkpoint")) : null;
+        long t0 = System.nanoTime();
+        List<Process> procs = new ArrayList<>();
+        try (SDESCoordinator c = SDESCoordinator.start(job, intOption(opts, "lease", 0), !all, checkpoint,
+                opts.get("bind"), intOption(opts, "port", workers > 0 ? 0 : SDESCoordinator.DEFAULT_PORT))) {
+            String host = opts.containsKey("bind") ? opts.get("bind") : "127.0.0.1";
+            String resumed = c.completedLeases() > 0 ? "（从检查点恢复，已完成 " + c.completedLeases() + " 个）" : "";
+            out.println(String.format("分布式搜索（%s，%d 对明文）：%s:%d，租约 %d 个%s",
+                    job.variant().label(), job.plain().length, host, c.port(), c.leaseCount(), resumed));
+            if (workers > 0) procs.addAll(c.spawnWorkers(workers));
+            try {
+                while (!c.await(1000)) {
+                    out.println(String.format("  进度 %d/%d，工作者 %d，匹配 %d，窃取 %d",
+                            c.completedLeases(), c.leaseCount(), c.workers(), c.matches().length, c.stolenLeases()));
+                    boolean alive = false;
+                    for (Process p : procs) alive |= p.isAlive();
+                    if (workers > 0 && !alive && c.workers() == 0) {
+                        out.println("工作进程已全部退出，搜索未完成" + (checkpoint != null ? "；用同一 --checkpoint 重新运行可继续" : ""));
+                        return 1;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 1;
+            }
+            int[] found = c.matches();
+            out.println(String.format("搜索结束：耗时 %.3f ms，完成租约 %d/%d，确认匹配 %d 个%s",
+                    (System.nanoTime() - t0) / 1e6, c.completedLeases(), c.leaseCount(), found.length,
+                    all ? "" : "（找到第一个匹配即停止）"));
+            for (int i = 0; i < found.length && i < 20; ++i) out.println("  " + job.format(found[i]));
+            if (found.length > 20) out.println("  ……");
+            return 0;
+        } finally {
+            // 协调者关闭后工作者会收到结束消息或连接断开，稍等其退出
+            for (Process p : procs) {
+                try {
+                    if (!p.waitFor(5, TimeUnit.SECONDS)) p.destroy();
+                } catch (InterruptedException e) {
+                    p.destroy();
+                }
+            }
+        }
+    }
+
+    // 分布式搜索的工作进程
+    private static int worker(Map<String, String> opts, PrintStream out) throws IOException {
+        String name = opts.containsKey("name") ? opts.get("name") : "worker";
+        int leases = SDESWorker.run(opts.containsKey("host") ? opts.get("host") : "127.0.0.1",
+                intOption(opts, "port", SDESCoordinator.DEFAULT_PORT), name);
+        out.println(name + "：完成租约 " + leases + " 个");
+        return 0;
+    }
+
+    // 测试向量：同一组分组在一段密钥下的结果，每行 "密钥,十六进制结果"
+    private static int vectors(Map<String, String> opts, PrintStream out) throws IOException {
+        byte[] blocks = SDESCodecs.HEX.decode(require(opts, "hex"));
+        int[] keys = SDESBatch.keyRange(intOption(opts, "from", 0), intOption(opts, "to", SDESKey.KEY_COUNT));
+        String mode = opts.containsKey("mode") ? opts.get("mode") : "encrypt";
+        if (!"encrypt".equals(mode) && !"decrypt".equals(mode))
+            throw new IllegalArgumentException("参数 --mode 只能为 encrypt 或 decrypt：" + mode);
+        String dst = opts.get("out");
+        try (Writer w = dst != null ? Files.newBufferedWriter(Paths.get(dst), StandardCharsets.UTF_8) : null) {
+            Appendable sink = w != null ? w : out;
+            sink.append("key,").append(mode).append('\n');
+            IOException[] failure = new IOException[1];
+            // 不传线程池：按密钥顺序回调，输出有序
+            SDESBatch.forEach(blocks, 0, blocks.length, keys, "encrypt".equals(mode), (i, k, row, off, len) -> {
+                try {
+                    sink.append(SDESKey.of(k).toBits()).append(',').append(SDESCodecs.HEX.encode(row, off, len)).append('\n');
+                    return true;
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return false;
+                }
+            }, null);
+            if (failure[0] != null) throw failure[0];
+        }
+        if (dst != null) out.println("已写出 " + keys.length + " 个密钥的测试向量：" + dst);
+        return 0;
+    }
+
+    // 本机加解密服务，运行到进程被终止为止
+    private static int serve(Map<String, String> opts, PrintStream out) throws IOException {
+        SDESEngine engine = opts.containsKey("engine")
+                ? SDESEngines.byName(opts.get("engine")) : SDESEngines.defaultEngine();
+        final SDESServer server = SDESServer.start(intOption(opts, "port", SDESServer.DEFAULT_PORT),
+                intOption(opts, "threads", Runtime.getRuntime().availableProcessors()), engine,
+                intOption(opts, "max-frame", SDESServer.DEFAULT_MAX_FRAME));
+        SDESJmx.register();
+        out.println("服务已启动：127.0.0.1:" + server.port() + "，引擎 " + engine.name()
+                + "，JMX 指标 " + SDESJmx.OBJECT_NAME);
+        Closeable dump = opts.containsKey("metrics")
+                ? SDESMetrics.startDump(out, longOption(opts, "metrics", 10000)) : null;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                if (dump != null) dump.close();
+                server.close();
+            } catch (IOException e) {
+                // 进程退出中，忽略
+            }
+            out.println(String.format("服务已停止：共处理请求 %d 个（错误 %d 个），负载 %d 字节",
+                    server.requests(), server.errors(), server.bytes()));
+        }));
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                return 0;
+            }
+        }
+    }
+
+    // 负载测试；未指定 --port 时在本进程内启动一个服务作为目标
+    private static int loadgen(Map<String, String> opts, PrintStream out) throws IOException {
+        String op = opts.containsKey("op") ? opts.get("op") : "encrypt";
+        int size = intOption(opts, "size", 64);
+        int connections = intOption(opts, "connections", 4);
+        int depth = intOption(opts, "depth", 8);
+        long warmup = longOption(opts, "warmup", 1000);
+        long time = longOption(opts, "time", 5000);
+        SDESServer embedded = null;
+        int port;
+        if (opts.containsKey("port")) {
+            port = intOption(opts, "port", SDESServer.DEFAULT_PORT);
+        } else {
+            embedded = SDESServer.start(0, intOption(opts, "threads", Runtime.getRuntime().availableProcessors()),
+                    SDESEngines.defaultEngine(), SDESServer.DEFAULT_MAX_FRAME);
+            port = embedded.port();
+        }
+        try {
+            out.println(String.format("负载测试：127.0.0.1:%d%s，操作 %s，负载 %d 字节，连接 %d，流水线深度 %d，预热 %d ms，测量 %d ms",
+                    port, embedded != null ? "（内嵌服务）" : "", op, size, connections, depth, warmup, time));
+            SDESLoadGen.Result r = SDESLoadGen.run(port, op, size, connections, depth, warmup, time);
+            SDESLoadGen.print(r, out);
+            if (embedded != null) SDESMetrics.get().writeJson(out);
+            return r.errors() == 0 ? 0 : 1;
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    // ---------- 辅助方法 ----------
+
+    // 逗号分隔的 8 位二进制分组
+    static byte[] parseBlocks(String s) {
+        String[] parts = s.split(",");
+        byte[] out = new byte[parts.length];
+        for (int i = 0; i < parts.length; ++i) {
+            out[i] = (byte) SDES.parseBits(parts[i].trim(), 8, "分组必须为8位二进制字符串：" + parts[i].trim());
+        }
+        return out;
+    }
+
+    // 解析 --name value 形式的选项
+    static Map<String, String> parseOptions(String[] args, int from) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = from; i < args.length; ++i) {
+            String a = args[i];
+            if (!a.startsWith("--") || a.length() == 2)
+                throw new IllegalArgumentException("无法识别的参数：" + a);
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("参数缺少取值：" + a);
+            opts.put(a.substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    static String require(Map<String, String> opts, String name) {
+        String v = opts.get(name);
+        if (v == null) throw new IllegalArgumentException("缺少参数 --" + name);
+        return v;
+    }
+
+    static int intOption(Map<String, String> opts, String name, int def) {
+        String v = opts.get(name);
+        if (v == null) return def;
+        try {
+            return Integer.parseInt(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 --" + name + " 必须为整数：" + v);
+        }
+    }
+
+    static long longOption(Map<String, String> opts, String name, long def) {
+        String v = opts.get(name);
+        if (v == null) return def;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 --" + name + " 必须为整数：" + v);
+        }
+    }
+
+    // 字节/秒 的可读形式
+    static String rate(long bytes, long nanos) {
+        double perSec = nanos > 0 ? bytes * 1e9 / nanos : 0;
+        if (perSec >= 1 << 30) return String.format("%.2f GB/s", perSec / (1 << 30));
+        if (perSec >= 1 << 20) return String.format("%.2f MB/s", perSec / (1 << 20));
+        if (perSec >= 1 << 10) return String.format("%.2f KB/s", perSec / (1 << 10));
+        return String.format("%.0f B/s", perSec);
+    }
+
+    private static void usage(PrintStream ps) {
+        ps.println("用法：");
+        ps.println("  java -jar sdes-tools.jar encrypt --key <10位二进制> --in <文件> --out <文件> [--threads N] [--engine table|computed|bitsliced]");
+        ps.println("  java -jar sdes-tools.jar decrypt --key <10位二进制> --in <文件> --out <文件> [--threads N] [--engine table|computed|bitsliced]");
+        ps.println("  java -jar sdes-tools.jar analyze [--format json|csv] [--out 文件或目录]");
+        ps.println("  java -jar sdes-tools.jar mitm --variant double|triple|triple2 --plain <8位块,...> --cipher <8位块,...> [--max N]");
+        ps.println("  java -jar sdes-tools.jar search --variant single|double|triple|triple2 --plain <8位块,...> --cipher <8位块,...> [--workers N] [--port P] [--bind 地址] [--lease N] [--checkpoint 文件] [--all true]");
+        ps.println("  java -jar sdes-tools.jar worker --port P [--host 127.0.0.1] [--name 名称]");
+        ps.println("  java -jar sdes-tools.jar vectors --hex <十六进制分组> [--from 0] [--to 1024] [--mode encrypt|decrypt] [--out 文件]");
+        ps.println("  java -jar sdes-tools.jar cipheronly (--in <文件> | --hex <十六进制密文>) [--scorer english|printable|utf8] [--top N] [--prefix 字节数]");
+        ps.println("  java -jar sdes-tools.jar selfcheck");
+        ps.println("  java -jar sdes-tools.jar bench [--filter 名称片段] [--max-size 字节数] [--warmup N] [--iterations N] [--time 毫秒]");
+        ps.println("  java -jar sdes-tools.jar serve [--port 9300] [--threads N] [--engine table|computed|bitsliced] [--max-frame 字节数] [--metrics 毫秒]");
+        ps.println("  java -jar sdes-tools.jar loadgen [--port P] [--op encrypt|decrypt|recover] [--size 字节数] [--connections N] [--depth N] [--warmup 毫秒] [--time 毫秒]");
+    }
+}
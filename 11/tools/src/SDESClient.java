@@ -0,0 +1,94 @@
+/**
+ * SDESClient.java
+ * SDESServer 的阻塞式客户端（协议见 SDESServer）
+ *
+ * 一个实例对应一条连接，不是线程安全的；需要并发时每个线程各建一个实例。
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+public final class SDESClient implements Closeable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public SDESClient(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress().getHostAddress(), port);
+    }
+
+    public SDESClient(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /** 加密 data，返回等长密文 */
+    public byte[] encrypt(byte[] data, int key10) throws IOException {
+        return call(SDESServer.OP_ENCRYPT, key10, data, 0, data.length);
+    }
+
+    /** 解密 data，返回等长明文 */
+    public byte[] decrypt(byte[] data, int key10) throws IOException {
+        return call(SDESServer.OP_DECRYPT, key10, data, 0, data.length);
+    }
+
+    /**
+     * 由已知明文/密文（等长）恢复候选密钥
+     * @return 升序排列的候选密钥
+     */
+    public int[] recover(byte[] plain, byte[] cipher) throws IOException {
+        if (plain.length != cipher.length) throw new IllegalArgumentException("明文与密文长度必须一致");
+        byte[] payload = new byte[plain.length * 2];
+        System.arraycopy(plain, 0, payload, 0, plain.length);
+        System.arraycopy(cipher, 0, payload, plain.length, cipher.length);
+        byte[] r = call(SDESServer.OP_RECOVER, 0, payload, 0, payload.length);
+        int[] keys = new int[r.length / 2];
+        for (int i = 0; i < keys.length; ++i) keys[i] = ((r[2 * i] & 0xFF) << 8) | (r[2 * i + 1] & 0xFF);
+        return keys;
+    }
+
+    private byte[] call(byte op, int key10, byte[] data, int off, int len) throws IOException {
+        writeRequest(out, op, key10, data, off, len);
+        out.flush();
+        return readResponse(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    // ---------- 帧读写（SDESLoadGen 也使用） ----------
+
+    /** 写出一个请求帧（不 flush） */
+    static void writeRequest(DataOutputStream out, byte op, int key10, byte[] data, int off, int len)
+            throws IOException {
+        out.writeInt(3 + len);
+        out.writeByte(op);
+        out.writeShort(key10);
+        out.write(data, off, len);
+    }
+
+    /**
+     * 读入一个响应帧，返回负载
+     * @throws IOException 服务端返回错误状态，异常信息为服务端的错误信息
+     */
+    static byte[] readResponse(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 1) throw new IOException("响应帧长度非法：" + len);
+        int status = in.readByte();
+        byte[] payload = new byte[len - 1];
+        in.readFully(payload);
+        if (status != SDESServer.STATUS_OK)
+            throw new IOException("服务端错误：" + new String(payload, StandardCharsets.UTF_8));
+        return payload;
+    }
+}
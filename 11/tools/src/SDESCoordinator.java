@@ -0,0 +1,445 @@
+/**
+ * SDESCoordinator.java
+ * 分布式密钥搜索的协调者：把 KeySpaceSearch 的下标空间切成小租约，分给通过 TCP 连接进来的工作进程
+ *
+ * 协议：阻塞式 TCP，DataInput/DataOutput 编码，所有整数为大端序
+ *   连接后  协调者 → 工作者  MSG_JOB     | UTF 加密方式 | int n | n 字节明文 | n 字节密文 | int maxResults
+ *   工作者 → 协调者          MSG_REQUEST | UTF 工作者名称                       （请求第一个租约）
+ *                            MSG_RESULT  | int 租约号 | 若干页 | int 0           （提交结果并请求下一个租约）
+ *                                          每页为 int m | m 个 int 下标，1 <= m <= RESULT_PAGE_SIZE
+ *   协调者 → 工作者          MSG_LEASE   | int 租约号 | int from | int to
+ *                            MSG_DONE                                          （搜索结束，工作者断开）
+ *
+ * 调度：
+ *   - 租约很小（默认约为总数的 1/256），空闲的工作者随时来取，快的多做、慢的少做；
+ *   - 待分配队列取空后，空闲的工作者"窃取"仍在别人手中、最早分出的租约重复执行，先交回的结果为准，
+ *     因此卡住或很慢的工作者不会拖住结尾；
+ *   - 工作者断开时它手中的租约立即放回队列；
+ *   - 工作者上报的匹配由协调者再用全部明文对验证一次，stopOnFirst 时确认第一个匹配后即结束；
+ *     否则 maxResults 为 Integer.MAX_VALUE，租约内的匹配全部分页交回，不会截断。
+ * 进度（已完成租约的位图和已确认的匹配）定期写入检查点文件，用同一文件重新启动即从断点继续。
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+public final class SDESCoordinator implements Closeable {
+    static final byte MSG_JOB = 1;
+    static final byte MSG_REQUEST = 2;
+    static final byte MSG_RESULT = 3;
+    static final byte MSG_LEASE = 4;
+    static final byte MSG_DONE = 5;
+
+    /** 默认端口 */
+    public static final int DEFAULT_PORT = 9310;
+    /** MSG_RESULT 中每页最多的下标个数（只限制单帧大小，一个租约的匹配个数不受限） */
+    static final int RESULT_PAGE_SIZE = 1024;
+    // 两次写检查点之间的最短间隔
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final KeySpaceSearch search;
+    private final int leaseSize;
+    private final int leaseCount;
+    private final boolean stopOnFirst;
+    private final Path checkpoint;
+    private final ServerSocket server;
+    private final Thread acceptor;
+
+    // 以下状态由 this 保护
+    private final BitSet done = new BitSet();
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private final Map<Integer, Lease> outstanding = new LinkedHashMap<>(); // 按分出的先后排列
+    private final TreeSet<Integer> matches = new TreeSet<>();
+    private final List<Socket> sockets = new ArrayList<>();
+    private int workers;
+    private long stolen;
+    private long lastCheckpoint;
+    private boolean finished;
+    private boolean closed;
+
+    // 一个已分出的租约
+    private static final class Lease {
+        int holders;
+    }
+
+    private SDESCoordinator(KeySpaceSearch search, int leaseSize, boolean stopOnFirst, Path checkpoint,
+                            ServerSocket server) throws IOException {
+        this.search = search;
+        this.leaseSize = leaseSize;
+        this.leaseCount = (int) ((search.variant().size() + (long) leaseSize - 1) / leaseSize);
+        this.stopOnFirst = stopOnFirst;
+        this.checkpoint = checkpoint;
+        this.server = server;
+        if (checkpoint != null && Files.exists(checkpoint)) load();
+        for (int i = done.nextClearBit(0); i < leaseCount; i = done.nextClearBit(i + 1)) pending.add(i);
+        finished = pending.isEmpty() || (stopOnFirst && !matches.isEmpty());
+        acceptor = new Thread(this::acceptLoop, "sdes-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 启动协调者
+     * @param bind       监听地址，null 表示只监听 127.0.0.1
+     * @param port       端口，0 表示由系统分配（见 {@link #port()}）
+     * @param leaseSize  每个租约的下标个数，<=0 时取默认值
+     * @param checkpoint 检查点文件，null 表示不保存进度；文件已存在时从中恢复
+     */
+    public static SDESCoordinator start(KeySpaceSearch search, int leaseSize, boolean stopOnFirst, Path checkpoint,
+                                        String bind, int port) throws IOException {
+        if (search == null) throw new IllegalArgumentException("搜索任务不能为空");
+        if (leaseSize <= 0) leaseSize = defaultLeaseSize(search.variant());
+        ServerSocket server = new ServerSocket();
+        try {
+            InetAddress addr = bind != null ? InetAddress.getByName(bind) : InetAddress.getLoopbackAddress();
+            server.bind(new InetSocketAddress(addr, port));
+            return new SDESCoordinator(search, leaseSize, stopOnFirst, checkpoint, server);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    /** 默认租约大小：总数的 1/256，至少 1024 个 */
+    public static int defaultLeaseSize(KeySpaceSearch.Variant variant) {
+        return Math.max(SDESKey.KEY_COUNT, variant.size() >>> 8);
+    }
+
+    /** 实际监听的端口 */
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public int leaseCount() {
+        return leaseCount;
+    }
+
+    public synchronized int completedLeases() {
+        return done.cardinality();
+    }
+
+    /** 当前连接的工作者个数 */
+    public synchronized int workers() {
+        return workers;
+    }
+
+    /** 被窃取（重复分出）的租约次数 */
+    public synchronized long stolenLeases() {
+        return stolen;
+    }
+
+    /** 已确认的匹配下标（升序） */
+    public synchronized int[] matches() {
+        int[] out = new int[matches.size()];
+        int i = 0;
+        for (int m : matches) out[i++] = m;
+        return out;
+    }
+
+    public synchronized boolean finished() {
+        return finished;
+    }
+
+    /**
+     * 等待搜索结束
+     * @return 在 timeoutMillis 内结束返回 true
+     */
+    public synchronized boolean await(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!finished) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) return false;
+            wait(left);
+        }
+        return true;
+    }
+
+    /** 停止接受连接并断开所有工作者，写出最终检查点 */
+    @Override
+    public void close() throws IOException {
+        List<Socket> open;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            open = new ArrayList<>(sockets);
+            notifyAll();
+        }
+        try {
+            if (checkpoint != null) {
+                synchronized (this) {
+                    save();
+                }
+            }
+        } finally {
+            server.close();
+            for (Socket s : open) closeQuietly(s);
+        }
+    }
+
+    // ---------- 连接处理 ----------
+
+    private void acceptLoop() {
+        int seq = 0;
+        while (!server.isClosed()) {
+            Socket s;
+            try {
+                s = server.accept();
+            } catch (IOException e) {
+                return; // 已关闭
+            }
+            Thread t = new Thread(() -> serve(s), "sdes-coordinator-" + (seq++));
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private void serve(Socket s) {
+        int current = -1;
+        synchronized (this) {
+            if (closed) {
+                closeQuietly(s);
+                return;
+            }
+            sockets.add(s);
+            workers++;
+        }
+        try {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            byte[] plain = search.plain();
+            out.writeByte(MSG_JOB);
+            out.writeUTF(search.variant().label());
+            out.writeInt(plain.length);
+            out.write(plain);
+            out.write(search.cipher());
+            out.writeInt(stopOnFirst ? 1 : Integer.MAX_VALUE);
+            out.flush();
+            while (true) {
+                byte op = in.readByte();
+                if (op == MSG_RESULT) {
+                    if (in.readInt() != current) throw new IOException("工作者上报了无效的租约号");
+                    complete(current, readResults(in, leaseLength(current)));
+                    current = -1;
+                } else if (op == MSG_REQUEST) {
+                    in.readUTF(); // 名称目前只用于排查问题时抓包查看
+                } else {
+                    throw new IOException("未知消息类型：" + op);
+                }
+                current = next();
+                if (current < 0) {
+                    out.writeByte(MSG_DONE);
+                    out.flush();
+                    return;
+                }
+                out.writeByte(MSG_LEASE);
+                out.writeInt(current);
+                out.writeInt(current * leaseSize);
+                out.writeInt((int) Math.min((long) (current + 1) * leaseSize, search.variant().size()));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 工作者断开或协议错误：交还手中的租约
+        } finally {
+            release(current);
+            synchronized (this) {
+                sockets.remove(s);
+                workers--;
+            }
+            closeQuietly(s);
+        }
+    }
+
+    // 取下一个租约：先取待分配队列，队列为空时窃取别人手中最早分出的租约；没有可做的返回 -1
+    private synchronized int next() {
+        while (!finished && !closed) {
+            Integer id = pending.poll();
+            if (id != null) {
+                Lease lease = new Lease();
+                lease.holders = 1;
+                outstanding.put(id, lease);
+                return id;
+            }
+            for (Map.Entry<Integer, Lease> e : outstanding.entrySet()) {
+                if (e.getValue().holders == 1) {
+                    e.getValue().holders++;
+                    stolen++;
+                    return e.getKey();
+                }
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // 读取 MSG_RESULT 的各页直到结束标记；匹配总数不会超过租约长度
+    private static int[] readResults(DataInputStream in, int limit) throws IOException {
+        int[] found = new int[0];
+        int count = 0;
+        int m;
+        while ((m = in.readInt()) != 0) {
+            if (m < 0 || m > RESULT_PAGE_SIZE || m > limit - count)
+                throw new IOException("工作者上报了无效的结果");
+            if (count + m > found.length) found = Arrays.copyOf(found, Math.max(count + m, found.length << 1));
+            for (int i = 0; i < m; ++i) found[count++] = in.readInt();
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /** 按 MSG_RESULT 的分页格式写出匹配下标（含结束标记，不 flush） */
+    static void writeResults(DataOutputStream out, int[] found) throws IOException {
+        for (int off = 0; off < found.length; off += RESULT_PAGE_SIZE) {
+            int m = Math.min(RESULT_PAGE_SIZE, found.length - off);
+            out.writeInt(m);
+            for (int i = 0; i < m; ++i) out.writeInt(found[off + i]);
+        }
+        out.writeInt(0);
+    }
+
+    private int leaseLength(int id) {
+        return (int) Math.min((long) (id + 1) * leaseSize, search.variant().size()) - id * leaseSize;
+    }
+
+    private synchronized void complete(int id, int[] found) {
+        // 无论是否被窃取，交回一次即不再需要分出；另一方稍后交回的结果直接丢弃
+        outstanding.remove(id);
+        if (done.get(id)) return;
+        int from = id * leaseSize;
+        int to = from + leaseLength(id);
+        for (int index : found) {
+            if (index >= from && index < to && search.verify(index)) matches.add(index);
+        }
+        done.set(id);
+        if (done.cardinality() == leaseCount || (stopOnFirst && !matches.isEmpty())) finished = true;
+        if (checkpoint != null && (finished || System.nanoTime() - lastCheckpoint >= CHECKPOINT_INTERVAL_NANOS)) {
+            try {
+                save();
+            } catch (IOException e) {
+                // 检查点写失败不影响搜索本身，下次再试
+            }
+        }
+        notifyAll();
+    }
+
+    // 工作者断开：没有其他人在做的未完成租约放回队列头部
+    private synchronized void release(int id) {
+        if (id < 0) return;
+        Lease lease = outstanding.get(id);
+        if (lease == null || --lease.holders > 0) return;
+        outstanding.remove(id);
+        if (!done.get(id)) pending.addFirst(id);
+        notifyAll();
+    }
+
+    // ---------- 检查点 ----------
+
+    // 先写临时文件再改名，进程在写入中途被杀也不会留下半个文件
+    private void save() throws IOException {
+        Properties p = new Properties();
+        p.setProperty("variant", search.variant().label());
+        p.setProperty("plain", SDESCodecs.HEX.encode(search.plain(), 0, search.plain().length));
+        p.setProperty("cipher", SDESCodecs.HEX.encode(search.cipher(), 0, search.cipher().length));
+        p.setProperty("lease", Integer.toString(leaseSize));
+        // stopOnFirst 时找到匹配的租约只搜索到第一个匹配为止，不能用于 --all 的续跑，反之亦然
+        p.setProperty("all", Boolean.toString(!stopOnFirst));
+        p.setProperty("leases", Integer.toString(leaseCount));
+        byte[] bits = done.toByteArray();
+        p.setProperty("done", SDESCodecs.BASE64.encode(bits, 0, bits.length));
+        StringBuilder sb = new StringBuilder();
+        for (int m : matches) sb.append(sb.length() > 0 ? "," : "").append(m);
+        p.setProperty("matches", sb.toString());
+        Path dir = checkpoint.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, checkpoint.getFileName().toString(), ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp)) {
+            p.store(os, "S-DES 分布式密钥搜索检查点");
+        }
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpoint = System.nanoTime();
+    }
+
+    private void load() throws IOException {
+        Properties p = new Properties();
+        try (InputStream is = Files.newInputStream(checkpoint)) {
+            p.load(is);
+        }
+        if (!search.variant().label().equals(p.getProperty("variant"))
+                || !Arrays.equals(search.plain(), SDESCodecs.HEX.decode(p.getProperty("plain", "")))
+                || !Arrays.equals(search.cipher(), SDESCodecs.HEX.decode(p.getProperty("cipher", "")))
+                || !Integer.toString(leaseSize).equals(p.getProperty("lease"))
+                || !Boolean.toString(!stopOnFirst).equals(p.getProperty("all")))
+            throw new IllegalArgumentException("检查点与当前任务（加密方式、明文、密文、租约大小或是否搜索全部）不一致：" + checkpoint);
+        done.or(BitSet.valueOf(SDESCodecs.BASE64.decode(p.getProperty("done", ""))));
+        done.clear(leaseCount, Math.max(leaseCount, done.length()));
+        for (String m : p.getProperty("matches", "").split(",")) {
+            if (m.isEmpty()) continue;
+            try {
+                int index = Integer.parseInt(m.trim());
+                if (index >= 0 && index < search.variant().size() && search.verify(index)) matches.add(index);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("检查点中的匹配下标无效：" + m);
+            }
+        }
+    }
+
+    // ---------- 启动本机工作进程 ----------
+
+    /**
+     * 以当前 JVM 的 java 命令和类路径启动 n 个工作进程（SDESCli worker），连接到本协调者
+     * 工作进程的输出并入当前进程的标准输出
+     */
+    public List<Process> spawnWorkers(int n) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String cp = System.getProperty("java.class.path");
+        List<Process> procs = new ArrayList<>();
+        try {
+            for (int i = 0; i < n; ++i) {
+                ProcessBuilder pb = new ProcessBuilder(java, "-cp", cp, "SDESCli", "worker",
+                        "--host", server.getInetAddress().getHostAddress(), "--port", Integer.toString(port()),
+                        "--name", "worker-" + i);
+                pb.redirectErrorStream(true);
+                pb.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+                procs.add(pb.start());
+            }
+        } catch (IOException e) {
+            for (Process p : procs) p.destroy();
+            throw e;
+        }
+        return procs;
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+}
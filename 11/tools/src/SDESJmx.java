@@ -0,0 +1,34 @@
+/**
+ * SDESJmx.java
+ * 把 SDESMetrics 注册到平台 MBeanServer（对象名 sdes:type=Metrics），可用 jconsole / VisualVM 查看
+ *
+ * 放在 sdes-tools 中，使 sdes-core 只依赖 java.base。
+ */
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class SDESJmx {
+    /** MBean 对象名 */
+    public static final String OBJECT_NAME = "sdes:type=Metrics";
+
+    private SDESJmx() {
+    }
+
+    /**
+     * 注册指标 MBean；已注册时什么也不做
+     * @throws IllegalStateException 注册失败
+     */
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(SDESMetrics.get(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // 已注册
+        } catch (JMException e) {
+            throw new IllegalStateException("注册 JMX 指标失败：" + e.getMessage(), e);
+        }
+    }
+}
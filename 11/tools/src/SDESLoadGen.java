@@ -0,0 +1,251 @@
+/**
+ * SDESLoadGen.java
+ * SDESServer 的负载生成器：多条连接、每条连接保持固定数量的在途请求（流水线），
+ * 统计请求数/秒和延迟分位数（p50/p90/p99/p99.9），用于按实际流量估算所需容量。
+ *
+ * 每条连接一个线程，使用阻塞 IO；请求负载预先生成并复用，响应读入复用的缓冲区。
+ * 每条连接的第一个响应与本地计算结果比对，出错或不一致计入错误数。
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class SDESLoadGen {
+    private SDESLoadGen() {
+    }
+
+    /** 一次负载测试的结果 */
+    public static final class Result {
+        private final long requests;
+        private final long errors;
+        private final long payloadBytes;
+        private final long elapsedNanos;
+        private final long[] latencies; // 升序，纳秒
+
+        Result(long requests, long errors, long payloadBytes, long elapsedNanos, long[] latencies) {
+            this.requests = requests;
+            this.errors = errors;
+            this.payloadBytes = payloadBytes;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        /** 测量期间完成的请求数 */
+        public long requests() { return requests; }
+        /** 出错或结果不一致的请求数 */
+        public long errors() { return errors; }
+        public long elapsedNanos() { return elapsedNanos; }
+
+        public double requestsPerSecond() {
+            return elapsedNanos > 0 ? requests * 1e9 / elapsedNanos : 0;
+        }
+
+        /** 测量期间发送的负载字节数 */
+        public long payloadBytes() { return payloadBytes; }
+
+        /**
+         * 延迟分位数
+         * @param q 0..1，例如 0.99
+         * @return 纳秒；没有样本时为 0
+         */
+        public long percentile(double q) {
+            if (latencies.length == 0) return 0;
+            int i = (int) Math.ceil(q * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, i))];
+        }
+    }
+
+    /**
+     * 对 127.0.0.1:port 上的服务施加负载
+     * @param op           encrypt、decrypt 或 recover
+     * @param size         每个请求的负载字节数（recover 时为明文/密文对数）
+     * @param connections  连接数
+     * @param depth        每条连接的在途请求数
+     * @param warmupMillis 预热时长，期间的请求不计入结果
+     * @param timeMillis   测量时长
+     */
+    public static Result run(int port, String op, int size, int connections, int depth,
+                             long warmupMillis, long timeMillis) throws IOException {
+        if (size <= 0 || connections <= 0 || depth <= 0 || timeMillis <= 0 || warmupMillis < 0)
+            throw new IllegalArgumentException("负载大小、连接数、流水线深度和测量时长必须为正数");
+        final Request req = Request.of(op, size);
+
+        long start = System.nanoTime();
+        final long measureFrom = start + warmupMillis * 1_000_000L;
+        final long measureTo = measureFrom + timeMillis * 1_000_000L;
+        final Worker[] workers = new Worker[connections];
+        final AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; ++i) {
+            final Worker w = workers[i] = new Worker(port, req, depth, measureFrom, measureTo);
+            threads[i] = new Thread(() -> {
+                try {
+                    w.run();
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "sdes-loadgen-" + i);
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("负载测试被中断");
+            }
+        }
+        if (failure.get() != null) throw failure.get();
+
+        long requests = 0, errors = 0, count = 0;
+        for (Worker w : workers) {
+            requests += w.measured;
+            errors += w.errors;
+            count += w.latencyCount;
+        }
+        long[] all = new long[(int) count];
+        int n = 0;
+        for (Worker w : workers) {
+            System.arraycopy(w.latencies, 0, all, n, w.latencyCount);
+            n += w.latencyCount;
+        }
+        Arrays.sort(all);
+        return new Result(requests, errors, requests * req.payload.length, measureTo - measureFrom, all);
+    }
+
+    /** 打印结果 */
+    public static void print(Result r, PrintStream out) {
+        out.println(String.format("请求 %d，错误 %d，吞吐 %.0f req/s（负载 %s）",
+                r.requests(), r.errors(), r.requestsPerSecond(), SDESCli.rate(r.payloadBytes(), r.elapsedNanos())));
+        out.println(String.format("延迟 p50 %.1f µs，p90 %.1f µs，p99 %.1f µs，p99.9 %.1f µs，最大 %.1f µs",
+                r.percentile(0.5) / 1e3, r.percentile(0.9) / 1e3, r.percentile(0.99) / 1e3,
+                r.percentile(0.999) / 1e3, r.percentile(1.0) / 1e3));
+    }
+
+    // 预先生成的请求及其期望响应
+    private static final class Request {
+        final byte op;
+        final int key10;
+        final byte[] payload;
+        final byte[] expected;
+
+        private Request(byte op, int key10, byte[] payload, byte[] expected) {
+            this.op = op;
+            this.key10 = key10;
+            this.payload = payload;
+            this.expected = expected;
+        }
+
+        static Request of(String op, int size) {
+            Random rnd = new Random(42);
+            int key10 = rnd.nextInt(SDESKey.KEY_COUNT);
+            byte[] data = new byte[size];
+            rnd.nextBytes(data);
+            byte[] result = new byte[size];
+            switch (op) {
+                case "encrypt":
+                    SDES.encrypt(data, 0, size, result, 0, key10);
+                    return new Request(SDESServer.OP_ENCRYPT, key10, data, result);
+                case "decrypt":
+                    SDES.decrypt(data, 0, size, result, 0, key10);
+                    return new Request(SDESServer.OP_DECRYPT, key10, data, result);
+                case "recover": {
+                    SDES.encrypt(data, 0, size, result, 0, key10);
+                    byte[] payload = Arrays.copyOf(data, size * 2);
+                    System.arraycopy(result, 0, payload, size, size);
+                    int[] keys = KeyRecovery.recover(data, result);
+                    byte[] expected = new byte[keys.length * 2];
+                    for (int i = 0; i < keys.length; ++i) {
+                        expected[2 * i] = (byte) (keys[i] >>> 8);
+                        expected[2 * i + 1] = (byte) keys[i];
+                    }
+                    return new Request(SDESServer.OP_RECOVER, 0, payload, expected);
+                }
+                default:
+                    throw new IllegalArgumentException("操作只能为 encrypt、decrypt 或 recover：" + op);
+            }
+        }
+    }
+
+    // 单条连接：保持 depth 个在途请求，响应按发送顺序返回
+    private static final class Worker {
+        final int port;
+        final Request req;
+        final long[] sentAt;
+        final long measureFrom;
+        final long measureTo;
+        long measured;
+        long errors;
+        long[] latencies = new long[1024];
+        int latencyCount;
+
+        Worker(int port, Request req, int depth, long measureFrom, long measureTo) {
+            this.port = port;
+            this.req = req;
+            this.sentAt = new long[depth];
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+        }
+
+        void run() throws IOException {
+            try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                s.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream(), 64 * 1024));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream(), 64 * 1024));
+                byte[] buf = new byte[Math.max(64, req.expected.length)];
+                int depth = sentAt.length;
+                int head = 0, inFlight = 0;
+                for (; inFlight < depth; ++inFlight) send(out, inFlight);
+                out.flush();
+                boolean verified = false;
+                while (inFlight > 0) {
+                    int len = in.readInt();
+                    int status = in.readByte();
+                    if (len - 1 > buf.length) buf = new byte[len - 1];
+                    in.readFully(buf, 0, len - 1);
+                    long now = System.nanoTime();
+                    boolean ok = status == SDESServer.STATUS_OK;
+                    if (ok && !verified) {
+                        ok = len - 1 == req.expected.length
+                                && Arrays.equals(Arrays.copyOf(buf, len - 1), req.expected);
+                        verified = true;
+                    }
+                    long sent = sentAt[head];
+                    if (sent >= measureFrom && now <= measureTo) {
+                        ++measured;
+                        if (!ok) ++errors;
+                        record(now - sent);
+                    } else if (!ok) {
+                        ++errors;
+                    }
+                    --inFlight;
+                    if (now < measureTo) {
+                        send(out, head);
+                        ++inFlight;
+                    }
+                    head = (head + 1) % depth;
+                    // 已读空时才真正发出，积累的多个请求合并成一次写
+                    if (in.available() == 0) out.flush();
+                }
+            }
+        }
+
+        private void send(DataOutputStream out, int slot) throws IOException {
+            sentAt[slot] = System.nanoTime();
+            SDESClient.writeRequest(out, req.op, req.key10, req.payload, 0, req.payload.length);
+        }
+
+        private void record(long nanos) {
+            if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            latencies[latencyCount++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * SDESSelfCheck.java
+ * 可直接运行的正确性自检（项目不含单元测试框架，改动核心算法后运行本类即可）
+ *
+ * 检查项：
+ *   core    int 核心与字符串接口、SDESKey、各引擎（含结果表 table）在全部 1024 个密钥 × 256 个分组上
+ *           与原始的字符串实现（下方 Reference，逐字保留改写前的算法）逐一比对，加解密两个方向
+ *   modes   ECB / CBC / CTR / OFB 的已知答案（固定密钥、IV、明文和密文，由原始字符串实现按模式定义算出），
+ *           以及长度不是分块大小整数倍的消息在并行分块与顺序处理下结果一致、可原地往返
+ *
+ * 用法：java -jar sdes-tools.jar selfcheck，或直接运行 SDESSelfCheck 的 main；有失败项时退出码为 1
+ */
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public final class SDESSelfCheck {
+    // 模式已知答案：密钥 1010000010，IV 0x5A，明文 "S-DES KAT 0123456789"
+    private static final int KAT_KEY = 0b1010000010;
+    private static final int KAT_IV = 0x5A;
+    private static final String KAT_PLAIN = "532d444553204b41542030313233343536373839";
+    private static final String[][] KAT_MODES = {
+            { "ECB", "4f365f504f62c61522621fb8ce73bafd4bd60280" },
+            { "CBC", "7b77734b6eb276d60b5e5aaa28f5b38e84d5c076" },
+            { "CTR", "0a4c7b984f2059fcc54087c9e6325cf2c99d357f" },
+            { "OFB", "0ab56c998abea51d6b385e6b6bab1ce9efa9d665" },
+    };
+
+    private final PrintStream out;
+    private int failures;
+
+    private SDESSelfCheck(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(System.out) == 0 ? 0 : 1);
+    }
+
+    /**
+     * 运行全部检查
+     * @return 失败的检查项个数
+     */
+    public static int run(PrintStream out) {
+        SDESSelfCheck c = new SDESSelfCheck(out);
+        c.core();
+        c.modes();
+        out.println(c.failures == 0 ? "全部通过" : "失败 " + c.failures + " 项");
+        return c.failures;
+    }
+
+    // ---------- 检查项 ----------
+
+    private void core() {
+        SDESEngine[] engines = SDESEngines.all();
+        String error = null;
+        for (int k = 0; k < SDESKey.KEY_COUNT && error == null; ++k) {
+            String keyBits = SDESKey.of(k).toBits();
+            String[] sub = Reference.generateSubKeys(keyBits);
+            int packed = SDES.generateSubKeys(k);
+            if (!sub[0].equals(SDES.byteTo8Bits(packed >>> 8)) || !sub[1].equals(SDES.byteTo8Bits(packed))
+                    || !sub[0].equals(SDES.generateSubKeys(keyBits)[0]) || !sub[1].equals(SDES.generateSubKeys(keyBits)[1])) {
+                error = "子密钥不一致：key=" + keyBits;
+                break;
+            }
+            byte[][] encTables = new byte[engines.length][];
+            byte[][] decTables = new byte[engines.length][];
+            for (int e = 0; e < engines.length; ++e) {
+                encTables[e] = engines[e].table(true, k);
+                decTables[e] = engines[e].table(false, k);
+            }
+            for (int b = 0; b < 256 && error == null; ++b) {
+                String blockBits = SDES.byteTo8Bits(b);
+                int c = Integer.parseInt(Reference.encryptBlock(blockBits, keyBits), 2);
+                int p = Integer.parseInt(Reference.decryptBlock(blockBits, keyBits), 2);
+                if (SDES.encrypt(b, k) != c || SDES.decrypt(b, k) != p
+                        || !SDES.encryptBlock(blockBits, keyBits).equals(SDES.byteTo8Bits(c))
+                        || !SDES.decryptBlock(blockBits, keyBits).equals(SDES.byteTo8Bits(p))
+                        || SDESKey.of(k).encrypt(b) != c || SDESKey.of(k).decrypt(b) != p) {
+                    error = "分组结果不一致：key=" + keyBits + " block=" + blockBits;
+                }
+                for (int e = 0; e < engines.length; ++e) {
+                    if (error == null && (engines[e].encrypt(b, k) != c || engines[e].decrypt(b, k) != p
+                            || (encTables[e][b] & 0xFF) != c || (decTables[e][b] & 0xFF) != p))
+                        error = "引擎 " + engines[e].name() + " 结果不一致：key=" + keyBits + " block=" + blockBits;
+                }
+            }
+        }
+        report("core（1024 密钥 × 256 分组，与原始字符串实现比对）", error);
+    }
+
+    private void modes() {
+        // 教材中的单分组向量：密钥 1010000010，明文 10010111 → 密文 00111000
+        report("单分组教材向量", SDES.encryptBlock("10010111", "1010000010").equals("00111000")
+                ? null : "得到 " + SDES.encryptBlock("10010111", "1010000010"));
+
+        byte[] plain = SDESCodecs.HEX.decode(KAT_PLAIN);
+        SDESKey key = SDESKey.of(KAT_KEY);
+        for (String[] kat : KAT_MODES) {
+            SDESMode mode = SDESModes.byName(kat[0]);
+            byte[] expected = SDESCodecs.HEX.decode(kat[1]);
+            String error = null;
+            for (SDESEngine e : SDESEngines.all()) {
+                byte[] c = new byte[plain.length];
+                SDESModes.run(mode, true, e, key, KAT_IV, plain, 0, plain.length, c, 0, null);
+                byte[] p = new byte[c.length];
+                SDESModes.run(mode, false, e, key, KAT_IV, c, 0, c.length, p, 0, null);
+                if (!Arrays.equals(c, expected)) {
+                    error = "引擎 " + e.name() + " 密文为 " + SDESCodecs.HEX.encode(c, 0, c.length);
+                    break;
+                }
+                if (!Arrays.equals(p, plain)) {
+                    error = "引擎 " + e.name() + " 解密结果为 " + SDESCodecs.HEX.encode(p, 0, p.length);
+                    break;
+                }
+            }
+            report(mode.name() + " 已知答案", error);
+        }
+
+        // 刻意取不是分块大小整数倍的长度，使 Chunk 的二分切块落在奇数边界上
+        int t = SDESModes.PARALLEL_THRESHOLD;
+        int[] lengths = { 1, t - 1, t + 1, 2 * t + 3, 3 * t + 7, 5 * t - 13, 11 * t + 1 };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random rnd = new Random(20240601);
+            for (SDESMode mode : new SDESMode[] { SDESModes.ECB, SDESModes.CBC, SDESModes.CTR, SDESModes.OFB }) {
+                String error = null;
+                for (int len : lengths) {
+                    byte[] plainMsg = new byte[len];
+                    rnd.nextBytes(plainMsg);
+                    int iv = rnd.nextInt(256);
+                    SDESEngine engine = SDESEngines.defaultEngine();
+                    byte[] seq = new byte[len];
+                    SDESModes.run(mode, true, engine, key, iv, plainMsg, 0, len, seq, 0, null);
+                    byte[] par = plainMsg.clone(); // 原地加密
+                    SDESModes.run(mode, true, engine, key, iv, par, 0, len, par, 0, pool);
+                    if (!Arrays.equals(seq, par)) {
+                        error = "长度 " + len + " 并行加密与顺序加密不一致";
+                        break;
+                    }
+                    SDESModes.run(mode, false, engine, key, iv, par, 0, len, par, 0, pool);
+                    if (!Arrays.equals(par, plainMsg)) {
+                        error = "长度 " + len + " 并行原地解密未还原明文";
+                        break;
+                    }
+                }
+                report(mode.name() + " 分块往返（" + lengths.length + " 种长度）", error);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void report(String name, String error) {
+        if (error == null) {
+            out.println("  通过 " + name);
+        } else {
+            failures++;
+            out.println("  失败 " + name + "：" + error);
+        }
+    }
+
+    // 改写为 int 核心之前的字符串实现，原样保留作为参考
+    private static final class Reference {
+        private static final int[] P10 = {3,5,2,7,4,10,1,9,8,6};
+        private static final int[] P8  = {6,3,7,4,8,5,10,9};
+        private static final int[] IP  = {2,6,3,1,4,8,5,7};
+        private static final int[] IP_INV = {4,1,3,5,7,2,8,6};
+        private static final int[] EP = {4,1,2,3,2,3,4,1};
+        private static final int[] P4 = {2,4,3,1};
+        private static final int[][] SBOX1 = {
+                {1,0,3,2},
+                {3,2,1,0},
+                {0,2,1,3},
+                {3,1,0,2}
+        };
+        private static final int[][] SBOX2 = {
+                {0,1,2,3},
+                {2,3,1,0},
+                {3,0,1,2},
+                {2,1,0,3}
+        };
+
+        static String[] generateSubKeys(String key10) {
+            String p10 = permute(key10, P10);
+            String left = p10.substring(0,5);
+            String right = p10.substring(5);
+            left = leftShift(left, 1);
+            right = leftShift(right, 1);
+            String k1 = permute(left + right, P8);
+            left = leftShift(left, 2);
+            right = leftShift(right, 2);
+            String k2 = permute(left + right, P8);
+            return new String[] { k1, k2 };
+        }
+
+        static String encryptBlock(String plain8, String key10) {
+            String[] keys = generateSubKeys(key10);
+            return sdesEncrypt(plain8, keys[0], keys[1]);
+        }
+
+        static String decryptBlock(String cipher8, String key10) {
+            String[] keys = generateSubKeys(key10);
+            return sdesEncrypt(cipher8, keys[1], keys[0]);
+        }
+
+        private static String sdesEncrypt(String input8, String k1, String k2) {
+            String ip = permute(input8, IP);
+            String f1 = fk(ip.substring(0,4), ip.substring(4), k1);
+            String swapped = f1.substring(4) + f1.substring(0,4);
+            String f2 = fk(swapped.substring(0,4), swapped.substring(4), k2);
+            return permute(f2, IP_INV);
+        }
+
+        private static String fk(String L, String R, String subkey) {
+            String xor = xorBits(permute(R, EP), subkey);
+            String s1out = sboxLookup(xor.substring(0,4), SBOX1);
+            String s2out = sboxLookup(xor.substring(4), SBOX2);
+            String p4 = permute(s1out + s2out, P4);
+            return xorBits(L, p4) + R;
+        }
+
+        private static String sboxLookup(String in4, int[][] sbox) {
+            int row = Integer.parseInt("" + in4.charAt(0) + in4.charAt(3), 2);
+            int col = Integer.parseInt(in4.substring(1,3), 2);
+            return String.format("%2s", Integer.toBinaryString(sbox[row][col])).replace(' ', '0');
+        }
+
+        private static String xorBits(String a, String b) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < a.length(); ++i) sb.append(a.charAt(i) == b.charAt(i) ? '0' : '1');
+            return sb.toString();
+        }
+
+        private static String permute(String bits, int[] table) {
+            StringBuilder sb = new StringBuilder();
+            for (int idx : table) sb.append(bits.charAt(idx - 1));
+            return sb.toString();
+        }
+
+        private static String leftShift(String s, int n) {
+            return s.substring(n) + s.substring(0, n);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/**
+ * SDESServer.java
+ * 本机 S-DES 加解密服务（只监听 127.0.0.1），可作为 sidecar 运行
+ *
+ * 协议：TCP 上的长度前缀帧，所有整数为大端序
+ *   请求  int 长度 | byte 操作 | short 密钥 | 负载       （长度 = 3 + 负载字节数）
+ *   响应  int 长度 | byte 状态 | 负载                    （长度 = 1 + 负载字节数）
+ * 操作：
+ *   OP_ENCRYPT  负载为明文，响应负载为密文
+ *   OP_DECRYPT  负载为密文，响应负载为明文
+ *   OP_RECOVER  负载为 n 字节明文紧接 n 字节密文（密钥字段忽略），响应负载为每个候选密钥 2 字节
+ * 状态为 STATUS_ERROR 时负载是 UTF-8 错误信息；长度字段非法时直接断开连接。
+ *
+ * 线程模型：一个接收线程 + 若干 NIO Selector 事件循环，连接按轮询分给各循环。
+ * 每个连接的读写缓冲区在整个连接期间复用；一次读到的所有完整请求（客户端流水线发送的小请求）
+ * 批量处理，响应累积在输出缓冲区里一次写出。输出未写完时暂停读取，形成背压。
+ */
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SDESServer implements Closeable {
+    public static final byte OP_ENCRYPT = 1;
+    public static final byte OP_DECRYPT = 2;
+    public static final byte OP_RECOVER = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    /** 默认端口 */
+    public static final int DEFAULT_PORT = 9300;
+    /** 默认最大帧长（不含 4 字节长度字段）：1 MB */
+    public static final int DEFAULT_MAX_FRAME = 1 << 20;
+
+    // 连接缓冲区的初始大小，按需增长到 maxFrame + 4
+    private static final int INITIAL_BUFFER = 16 * 1024;
+
+    private final ServerSocketChannel server;
+    private final SDESEngine engine;
+    private final int maxFrame;
+    private final Loop[] loops;
+    private final Thread acceptor;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private volatile boolean closed;
+
+    private SDESServer(ServerSocketChannel server, int threads, SDESEngine engine, int maxFrame) throws IOException {
+        this.server = server;
+        this.engine = engine;
+        this.maxFrame = maxFrame;
+        this.loops = new Loop[threads];
+        for (int i = 0; i < threads; ++i) {
+            loops[i] = new Loop(Selector.open());
+            Thread t = new Thread(loops[i], "sdes-server-loop-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        acceptor = new Thread(this::acceptLoop, "sdes-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 在 127.0.0.1 上启动服务
+     * @param port    端口，0 表示由系统分配（见 {@link #port()}）
+     * @param threads 事件循环个数（<=0 时取 CPU 核数）
+     */
+    public static SDESServer start(int port, int threads, SDESEngine engine, int maxFrame) throws IOException {
+        if (engine == null) throw new IllegalArgumentException("引擎不能为空");
+        if (maxFrame < 3) throw new IllegalArgumentException("最大帧长过小：" + maxFrame);
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        try {
+            ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            return new SDESServer(ch, threads, engine, maxFrame);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** 实际监听的端口 */
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    /** 已处理的请求数（含出错的请求） */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /** 以错误状态响应的请求数 */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /** 已处理的负载字节数 */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Loop loop : loops) loop.selector.wakeup(); // 事件循环退出时关闭各自的连接
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (!closed) {
+            try {
+                SocketChannel ch = server.accept();
+                ch.socket().setTcpNoDelay(true);
+                Loop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.pending.add(ch);
+                loop.selector.wakeup();
+            } catch (IOException e) {
+                if (closed) return;
+            }
+        }
+    }
+
+    // ---------- 事件循环 ----------
+
+    private final class Loop implements Runnable {
+        final Selector selector;
+        final ConcurrentLinkedQueue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        final long[] bits = new long[KeyRecovery.BITSET_WORDS]; // 密钥恢复的候选位图，循环内复用
+
+        Loop(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    SocketChannel ch;
+                    while ((ch = pending.poll()) != null) {
+                        ch.configureBlocking(false);
+                        ch.register(selector, SelectionKey.OP_READ, new Conn(ch));
+                    }
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Conn c = (Conn) key.attachment();
+                        try {
+                            if (key.isValid() && key.isWritable()) c.flush(key);
+                            if (key.isValid() && key.isReadable()) c.read(key, this);
+                        } catch (IOException e) {
+                            key.cancel();
+                            c.ch.close();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Selector 出错，关闭本循环的全部连接
+            } finally {
+                for (SocketChannel ch : pending) closeQuietly(ch);
+                for (SelectionKey key : selector.keys()) closeQuietly(key.channel());
+                closeQuietly(selector);
+            }
+        }
+    }
+
+    // 单个连接：in 处于写入模式（position 为已读入字节数），out 处于写入模式（position 为待发送字节数）
+    private final class Conn {
+        final SocketChannel ch;
+        ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER);
+        ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER);
+
+        Conn(SocketChannel ch) {
+            this.ch = ch;
+        }
+
+        void read(SelectionKey key, Loop loop) throws IOException {
+            if (ch.read(in) < 0) {
+                key.cancel();
+                ch.close();
+                return;
+            }
+            in.flip();
+            byte[] a = in.array();
+            int need = 0;
+            while (in.remaining() >= 4) {
+                int p = in.position();
+                int len = in.getInt(p);
+                if (len < 3 || len > maxFrame) {
+                    // 帧长非法，无法再同步帧边界
+                    key.cancel();
+                    ch.close();
+                    return;
+                }
+                if (in.remaining() < 4 + len) {
+                    need = 4 + len;
+                    break;
+                }
+                handle(a, p + 4, len, loop);
+                in.position(p + 4 + len);
+            }
+            in.compact();
+            if (need > in.capacity()) in = grow(in, need);
+            flush(key);
+        }
+
+        // 处理一帧：a[p] 为操作码，a[p+1..p+3) 为密钥，其后为 len-3 字节负载
+        private void handle(byte[] a, int p, int len, Loop loop) {
+            requests.increment();
+            int op = a[p];
+            int key10 = ((a[p + 1] & 0xFF) << 8) | (a[p + 2] & 0xFF);
+            int off = p + 3;
+            int n = len - 3;
+            bytes.add(n);
+            switch (op) {
+                case OP_ENCRYPT:
+                case OP_DECRYPT: {
+                    if (key10 >= SDESKey.KEY_COUNT) {
+                        error("密钥必须在 0..1023 范围内");
+                        return;
+                    }
+                    reserve(5 + n);
+                    out.putInt(1 + n).put(STATUS_OK);
+                    int at = out.position();
+                    if (op == OP_ENCRYPT) engine.encrypt(a, off, n, out.array(), at, key10);
+                    else engine.decrypt(a, off, n, out.array(), at, key10);
+                    out.position(at + n);
+                    return;
+                }
+                case OP_RECOVER: {
+                    if (n == 0 || (n & 1) != 0) {
+                        error("密钥恢复需要等长且非空的明文与密文");
+                        return;
+                    }
+                    long t0 = SDESMetrics.start();
+                    int half = n >>> 1;
+                    int count = KeyRecovery.intersect(a, off, a, off + half, half, loop.bits);
+                    SDESMetrics.search(SDESKey.KEY_COUNT, t0);
+                    reserve(5 + 2 * count);
+                    out.putInt(1 + 2 * count).put(STATUS_OK);
+                    if (count > 0) {
+                        for (int k : KeyRecovery.keys(loop.bits)) out.putShort((short) k);
+                    }
+                    return;
+                }
+                default:
+                    error("未知操作：" + op);
+            }
+        }
+
+        private void error(String message) {
+            errors.increment();
+            byte[] msg = message.getBytes(StandardCharsets.UTF_8);
+            reserve(5 + msg.length);
+            out.putInt(1 + msg.length).put(STATUS_ERROR).put(msg);
+        }
+
+        private void reserve(int n) {
+            if (out.remaining() < n) out = grow(out, out.position() + n);
+        }
+
+        // 尽量写出；写不完时只关注可写事件（暂停读取），写完后恢复读取
+        void flush(SelectionKey key) throws IOException {
+            if (out.position() > 0) {
+                out.flip();
+                ch.write(out);
+                out.compact();
+            }
+            key.interestOps(out.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    // buf 处于写入模式，返回容量至少为 min、内容相同的新缓冲区
+    private static ByteBuffer grow(ByteBuffer buf, int min) {
+        ByteBuffer b = ByteBuffer.allocate(Math.max(min, buf.capacity() * 2));
+        buf.flip();
+        b.put(buf);
+        return b;
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * SDESWorker.java
+ * 分布式密钥搜索的工作者：连接 SDESCoordinator，逐个领取租约并用 KeySpaceSearch 搜索（协议见 SDESCoordinator）
+ *
+ * 每个工作者单线程运行，一台机器上按 CPU 核数启动多个工作进程即可（见 SDESCli search --workers）。
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+
+public final class SDESWorker {
+    private SDESWorker() {
+    }
+
+    /**
+     * 连接协调者并一直工作到收到结束消息；协调者提前结束（如已确认匹配后关闭）而断开连接时同样正常返回
+     * @param name 工作者名称，仅用于标识
+     * @return 完成的租约个数
+     */
+    public static int run(String host, int port, String name) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readByte() != SDESCoordinator.MSG_JOB) throw new IOException("协调者没有发送搜索任务");
+            KeySpaceSearch.Variant variant = KeySpaceSearch.Variant.byName(in.readUTF());
+            int n = in.readInt();
+            if (n <= 0 || n > SDESServer.DEFAULT_MAX_FRAME) throw new IOException("明文长度无效：" + n);
+            byte[] plain = new byte[n];
+            byte[] cipher = new byte[n];
+            in.readFully(plain);
+            in.readFully(cipher);
+            int maxResults = in.readInt();
+            KeySpaceSearch search = new KeySpaceSearch(variant, plain, cipher);
+
+            out.writeByte(SDESCoordinator.MSG_REQUEST);
+            out.writeUTF(name);
+            out.flush();
+            int leases = 0;
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException | SocketException e) {
+                    return leases;
+                }
+                if (op == SDESCoordinator.MSG_DONE) return leases;
+                if (op != SDESCoordinator.MSG_LEASE) throw new IOException("未知消息类型：" + op);
+                int id = in.readInt();
+                int from = in.readInt();
+                int to = in.readInt();
+                int[] found = search.search(from, to, maxResults);
+                out.writeByte(SDESCoordinator.MSG_RESULT);
+                out.writeInt(id);
+                SDESCoordinator.writeResults(out, found);
+                out.flush();
+                leases++;
+            }
+        }
+    }
+}